@@ -24,14 +24,18 @@ import ichttt.mods.firstaid.common.EventHandler;
 import ichttt.mods.firstaid.common.apiimpl.HealingItemApiHelperImpl;
 import ichttt.mods.firstaid.common.apiimpl.RegistryManager;
 import ichttt.mods.firstaid.common.items.FirstAidItems;
-import ichttt.mods.firstaid.common.network.MessageAddHealth;
-import ichttt.mods.firstaid.common.network.MessageApplyAbsorption;
 import ichttt.mods.firstaid.common.network.MessageApplyHealingItem;
+import ichttt.mods.firstaid.common.network.MessageBundle;
 import ichttt.mods.firstaid.common.network.MessageClientRequest;
 import ichttt.mods.firstaid.common.network.MessageConfiguration;
 import ichttt.mods.firstaid.common.network.MessagePlayHurtSound;
-import ichttt.mods.firstaid.common.network.MessageReceiveDamage;
+import ichttt.mods.firstaid.common.network.MessageReportState;
+import ichttt.mods.firstaid.common.network.MessageStateCheck;
 import ichttt.mods.firstaid.common.network.MessageSyncDamageModel;
+import ichttt.mods.firstaid.common.network.MessageTrackedHealth;
+import ichttt.mods.firstaid.common.network.MessageTrackedParts;
+import ichttt.mods.firstaid.common.network.MessageUpdateParts;
+import ichttt.mods.firstaid.common.network.PacketBundler;
 import ichttt.mods.firstaid.common.potion.FirstAidPotion;
 import ichttt.mods.firstaid.common.potion.PotionPoisonPatched;
 import ichttt.mods.firstaid.common.util.MorpheusHelper;
@@ -80,7 +84,7 @@ public class FirstAid {
     };
 
     private static final String NETWORKING_MAJOR = "2.";
-    private static final String NETWORKING_MINOR = "0";
+    private static final String NETWORKING_MINOR = "7";
 
     private static final String NETWORKING_VERSION = NETWORKING_MAJOR + NETWORKING_MINOR;
     public static final SimpleChannel NETWORKING = NetworkRegistry.newSimpleChannel(
@@ -136,14 +140,25 @@ public class FirstAid {
                 });
 
         int i = 0;
-        NETWORKING.registerMessage(++i, MessageReceiveDamage.class, MessageReceiveDamage::encode, MessageReceiveDamage::new, (message, supplier) -> MessageReceiveDamage.Handler.onMessage(message, supplier));
+        NETWORKING.registerMessage(++i, MessageUpdateParts.class, MessageUpdateParts::encode, MessageUpdateParts::new, (message, supplier) -> MessageUpdateParts.Handler.onMessage(message, supplier));
         NETWORKING.registerMessage(++i, MessageApplyHealingItem.class, MessageApplyHealingItem::encode, MessageApplyHealingItem::new, (message, supplier) -> MessageApplyHealingItem.Handler.onMessage(message, supplier));
         NETWORKING.registerMessage(++i, MessageConfiguration.class, MessageConfiguration::encode, MessageConfiguration::new, (message, supplier) -> MessageConfiguration.Handler.onMessage(message, supplier));
-        NETWORKING.registerMessage(++i, MessageApplyAbsorption.class, MessageApplyAbsorption::encode, MessageApplyAbsorption::new, (message, supplier) -> MessageApplyAbsorption.Handler.onMessage(message, supplier));
-        NETWORKING.registerMessage(++i, MessageAddHealth.class, MessageAddHealth::encode, MessageAddHealth::new, (message, supplier) -> MessageAddHealth.Handler.onMessage(message, supplier));
         NETWORKING.registerMessage(++i, MessagePlayHurtSound.class, MessagePlayHurtSound::encode, MessagePlayHurtSound::new, (message, supplier) -> MessagePlayHurtSound.Handler.onMessage(message, supplier));
         NETWORKING.registerMessage(++i, MessageClientRequest.class, MessageClientRequest::encode, MessageClientRequest::new, (message, supplier) -> MessageClientRequest.Handler.onMessage(message, supplier));
         NETWORKING.registerMessage(++i, MessageSyncDamageModel.class, MessageSyncDamageModel::encode, MessageSyncDamageModel::new, (message, supplier) -> MessageSyncDamageModel.Handler.onMessage(message, supplier));
+        NETWORKING.registerMessage(++i, MessageBundle.class, MessageBundle::encode, MessageBundle::new, (message, supplier) -> MessageBundle.Handler.onMessage(message, supplier));
+        NETWORKING.registerMessage(++i, MessageStateCheck.class, MessageStateCheck::encode, MessageStateCheck::new, (message, supplier) -> MessageStateCheck.Handler.onMessage(message, supplier));
+        NETWORKING.registerMessage(++i, MessageReportState.class, MessageReportState::encode, MessageReportState::new, (message, supplier) -> MessageReportState.Handler.onMessage(message, supplier));
+        NETWORKING.registerMessage(++i, MessageTrackedHealth.class, MessageTrackedHealth::encode, MessageTrackedHealth::new, (message, supplier) -> MessageTrackedHealth.Handler.onMessage(message, supplier));
+        NETWORKING.registerMessage(++i, MessageTrackedParts.class, MessageTrackedParts::encode, MessageTrackedParts::new, (message, supplier) -> MessageTrackedParts.Handler.onMessage(message, supplier));
+
+        PacketBundler.register(MessageUpdateParts.class, MessageUpdateParts::encode, MessageUpdateParts::new, message -> MessageUpdateParts.Handler.handle(message));
+        PacketBundler.register(MessageConfiguration.class, MessageConfiguration::encode, MessageConfiguration::new, message -> MessageConfiguration.Handler.handle(message));
+        PacketBundler.register(MessagePlayHurtSound.class, MessagePlayHurtSound::encode, MessagePlayHurtSound::new, message -> MessagePlayHurtSound.Handler.handle(message));
+        PacketBundler.register(MessageSyncDamageModel.class, MessageSyncDamageModel::encode, MessageSyncDamageModel::new, message -> MessageSyncDamageModel.Handler.handle(message));
+        PacketBundler.register(MessageStateCheck.class, MessageStateCheck::encode, MessageStateCheck::new, message -> MessageStateCheck.Handler.handle(message));
+        PacketBundler.register(MessageTrackedHealth.class, MessageTrackedHealth::encode, MessageTrackedHealth::new, message -> MessageTrackedHealth.Handler.handle(message));
+        PacketBundler.register(MessageTrackedParts.class, MessageTrackedParts::encode, MessageTrackedParts::new, message -> MessageTrackedParts.Handler.handle(message));
 
 
         if (ModList.get().isLoaded("morpheus")) {
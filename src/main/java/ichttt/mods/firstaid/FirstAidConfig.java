@@ -177,6 +177,10 @@ public class FirstAidConfig {
 
     public static class General {
 
+        public enum LivingDamageEventMode {
+            PER_SLOT, ONCE_PER_HIT
+        }
+
         public General(ForgeConfigSpec.Builder builder) {
             builder.comment("Server only configuration settings").push("Debuffs");
             head = new General.Head(builder);
@@ -195,6 +199,54 @@ public class FirstAidConfig {
                             "Only enable for special purposes")
                     .translation("firstaid.config.debug")
                     .define("debug", false);
+            coalesceHits = builder
+                    .comment("If true, all hits a player takes during one tick are collected and applied together at the end of the tick",
+                            "Reduces network traffic when many hits arrive at once (e.g. arrows, explosions, mob farms), but damage is applied slightly delayed",
+                        "Armor is still read when the hit arrives, but healing received later in the same tick is applied before the queued hits",
+                        "FirstAidLivingDamageEvent is only posted once per player and tick, canceling it reverts all hits of that tick")
+                    .translation("firstaid.config.coalescehits")
+                    .define("coalesceHits", false);
+            livingDamageEventMode = builder
+                    .comment("How often LivingDamageEvent is posted for a hit",
+                            "PER_SLOT posts it for every armor slot the damage passes through, so other mods can react to each slot",
+                            "ONCE_PER_HIT posts it only for the first slot and scales the damage on all following slots the same way, which is cheaper with many listeners")
+                    .translation("firstaid.config.livingdamageeventmode")
+                    .defineEnum("livingDamageEventMode", LivingDamageEventMode.PER_SLOT);
+            deterministicRandom = builder
+                    .comment("If true, damage and healing distribution on the server uses a random sequence per player, seeded from the world seed and the player UUID",
+                            "The sequence restarts on login, so the same hits produce the same results. Meant for debugging and benchmarking")
+                    .translation("firstaid.config.deterministicrandom")
+                    .define("deterministicRandom", false);
+            clientRequestBurst = builder
+                    .comment("The number of requests a client may send in a row before further requests get dropped")
+                    .translation("firstaid.config.clientrequestburst")
+                    .defineInRange("clientRequestBurst", 8, 1, 64);
+            clientRequestRefillTicks = builder
+                    .comment("The ticks it takes until a client may send one more request after using up its burst")
+                    .translation("firstaid.config.clientrequestrefillticks")
+                    .defineInRange("clientRequestRefillTicks", 10, 1, 1200);
+            statsInterval = builder
+                    .comment("Interval in seconds in which statistics are reported in the log, such as dropped and cached client requests and damage events per hit. 0 to disable")
+                    .translation("firstaid.config.statsinterval")
+                    .defineInRange("statsInterval", 300, 0, 86400);
+            replicateToTrackers = builder
+                    .comment("If true, players that see another player receive the health of that player",
+                            "Teammates within teamDetailRange receive the health of every part, everyone else only the overall health",
+                            "FirstAid itself does not display this yet, only enable it for addons that read it")
+                    .translation("firstaid.config.replicatetotrackers")
+                    .define("replicateToTrackers", false);
+            trackedHealthInterval = builder
+                    .comment("Ticks between overall health updates sent to players that see another player")
+                    .translation("firstaid.config.trackedhealthinterval")
+                    .defineInRange("trackedHealthInterval", 20, 1, 1200);
+            trackedPartsInterval = builder
+                    .comment("Ticks between per part health updates sent to nearby teammates")
+                    .translation("firstaid.config.trackedpartsinterval")
+                    .defineInRange("trackedPartsInterval", 5, 1, 1200);
+            teamDetailRange = builder
+                    .comment("Max distance in blocks in which teammates receive the health of every part. 0 to disable")
+                    .translation("firstaid.config.teamdetailrange")
+                    .defineInRange("teamDetailRange", 32, 0, 256);
             builder.pop();
         }
 
@@ -204,6 +256,16 @@ public class FirstAidConfig {
         public final LegsAndFeet legsAndFeet;
         public final ForgeConfigSpec.BooleanValue hardMode;
         public final ForgeConfigSpec.BooleanValue debug;
+        public final ForgeConfigSpec.BooleanValue coalesceHits;
+        public final ForgeConfigSpec.EnumValue<LivingDamageEventMode> livingDamageEventMode;
+        public final ForgeConfigSpec.BooleanValue deterministicRandom;
+        public final ForgeConfigSpec.IntValue clientRequestBurst;
+        public final ForgeConfigSpec.IntValue clientRequestRefillTicks;
+        public final ForgeConfigSpec.IntValue statsInterval;
+        public final ForgeConfigSpec.BooleanValue replicateToTrackers;
+        public final ForgeConfigSpec.IntValue trackedHealthInterval;
+        public final ForgeConfigSpec.IntValue trackedPartsInterval;
+        public final ForgeConfigSpec.IntValue teamDetailRange;
 
         public static class Head {
 
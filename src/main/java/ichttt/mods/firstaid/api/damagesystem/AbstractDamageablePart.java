@@ -35,7 +35,6 @@ public abstract class AbstractDamageablePart implements INBTSerializable<Compoun
     public final EnumPlayerPart part;
     @Nullable
     public AbstractPartHealer activeHealer;
-    public float currentHealth;
 
     public AbstractDamageablePart(int maxHealth, boolean canCauseDeath, @Nonnull EnumPlayerPart playerPart) {
         this.initialMaxHealth = maxHealth;
@@ -80,6 +79,10 @@ public abstract class AbstractDamageablePart implements INBTSerializable<Compoun
      */
     public abstract void tick(World world, PlayerEntity player, boolean tickDebuffs);
 
+    public abstract float getCurrentHealth();
+
+    public abstract void setCurrentHealth(float currentHealth);
+
     public abstract void setAbsorption(float absorption);
 
     public abstract float getAbsorption();
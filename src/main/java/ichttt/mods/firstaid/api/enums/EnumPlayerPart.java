@@ -28,7 +28,27 @@ public enum EnumPlayerPart {
 
     public static final EnumPlayerPart[] VALUES = values();
 
+    static {
+        for (EnumPlayerPart part : VALUES) {
+            ImmutableList.Builder<EnumPlayerPart> builder = ImmutableList.builder();
+            if (part != BODY && part != HEAD) //Not quite sure what I though when I did this, but I', going to leave this as-is right now
+                builder.add(part.getUp());
+            if (part != LEFT_FOOT && part != RIGHT_FOOT)
+                builder.add(part.getDown());
+            if (part.ordinal() >= BODY.ordinal())
+                builder.add(part.getLeft());
+            else
+                builder.add(part.getRight());
+            part.neighbours = builder.build();
+            int neighbourMask = 0;
+            for (EnumPlayerPart neighbour : part.neighbours)
+                neighbourMask |= neighbour.getMask();
+            part.neighbourMask = neighbourMask;
+        }
+    }
+
     private ImmutableList<EnumPlayerPart> neighbours;
+    private int neighbourMask;
     public final EquipmentSlotType slot;
 
     EnumPlayerPart(EquipmentSlotType slot) {
@@ -36,21 +56,23 @@ public enum EnumPlayerPart {
     }
 
     public ImmutableList<EnumPlayerPart> getNeighbours() {
-        if (neighbours == null) { // Need to do lazy init to avoid crashes when initializing class
-            ImmutableList.Builder<EnumPlayerPart> builder = ImmutableList.builder();
-            if (this != BODY && this != HEAD) //Not quite sure what I though when I did this, but I', going to leave this as-is right now
-                builder.add(getUp());
-            if (this != LEFT_FOOT && this != RIGHT_FOOT)
-                builder.add(getDown());
-            if (this.ordinal() >= BODY.ordinal())
-                builder.add(getLeft());
-            else
-                builder.add(getRight());
-            neighbours = builder.build();
-        }
         return neighbours;
     }
 
+    /**
+     * @return the bit of this part in a part mask. Bit n stands for {@link #VALUES}[n]
+     */
+    public int getMask() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * @return the mask of all parts in {@link #getNeighbours()}
+     */
+    public int getNeighbourMask() {
+        return neighbourMask;
+    }
+
     public EnumPlayerPart getUp() {
         if (this == BODY)
             throw new RuntimeException("There is no part up from " + this);
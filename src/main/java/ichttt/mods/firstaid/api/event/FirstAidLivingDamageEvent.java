@@ -25,6 +25,8 @@ import net.minecraft.util.DamageSource;
 import net.minecraftforge.event.entity.player.PlayerEvent;
 import net.minecraftforge.eventbus.api.Cancelable;
 
+import java.util.function.Supplier;
+
 /**
  * Fired when the damage has been applied.
  * Canceling this event will cause the damage to be reset to {@link #getBeforeDamage()}
@@ -32,7 +34,8 @@ import net.minecraftforge.eventbus.api.Cancelable;
 @Cancelable
 public class FirstAidLivingDamageEvent extends PlayerEvent {
     private final AbstractPlayerDamageModel afterDamageDone;
-    private final AbstractPlayerDamageModel beforeDamageDone;
+    private Supplier<AbstractPlayerDamageModel> beforeDamageSupplier;
+    private AbstractPlayerDamageModel beforeDamageDone;
     private final DamageSource source;
     private final float undistributedDamage;
 
@@ -45,16 +48,31 @@ public class FirstAidLivingDamageEvent extends PlayerEvent {
     }
 
     /**
-     * @return The damage model before this damage got applied. Canceling this event causes this to be restored
+     * Creates the event with a lazily computed before state.
+     * The supplier is called at most once, the first time {@link #getBeforeDamage()} is queried
+     */
+    public static FirstAidLivingDamageEvent withLazyBeforeDamage(PlayerEntity entity, AbstractPlayerDamageModel afterDamageDone, Supplier<AbstractPlayerDamageModel> beforeDamageSupplier, DamageSource source, float undistributedDamage) {
+        FirstAidLivingDamageEvent event = new FirstAidLivingDamageEvent(entity, afterDamageDone, null, source, undistributedDamage);
+        event.beforeDamageSupplier = beforeDamageSupplier;
+        return event;
+    }
+
+    /**
+     * @return The damage model after this damage got applied. Not canceling this event causes this to applied
      */
     public AbstractPlayerDamageModel getAfterDamage() {
         return this.afterDamageDone;
     }
 
     /**
-     * @return The damage model after this damage got applied. Not canceling this event causes this to applied
+     * @return The damage model before this damage got applied. Canceling this event causes this to be restored.
+     * The returned model is a detached copy, changes to it are not applied to the player
      */
     public AbstractPlayerDamageModel getBeforeDamage() {
+        if (this.beforeDamageSupplier != null) {
+            this.beforeDamageDone = this.beforeDamageSupplier.get();
+            this.beforeDamageSupplier = null;
+        }
         return this.beforeDamageDone;
     }
 
@@ -33,6 +33,8 @@ import ichttt.mods.firstaid.common.items.FirstAidItems;
 import ichttt.mods.firstaid.common.util.ArmorUtils;
 import ichttt.mods.firstaid.common.util.CommonUtils;
 import net.minecraft.client.Minecraft;
+import net.minecraft.client.entity.player.RemoteClientPlayerEntity;
+import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.item.ArmorItem;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
@@ -46,6 +48,8 @@ import net.minecraftforge.client.event.ClientPlayerNetworkEvent;
 import net.minecraftforge.client.event.InputEvent;
 import net.minecraftforge.client.event.RenderGameOverlayEvent;
 import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.entity.EntityJoinWorldEvent;
+import net.minecraftforge.event.entity.EntityLeaveWorldEvent;
 import net.minecraftforge.event.entity.player.ItemTooltipEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 
@@ -169,5 +173,18 @@ public class ClientEventHandler {
     public static void onDisconnect(ClientPlayerNetworkEvent.LoggedOutEvent event) {
         FirstAid.isSynced = false;
         HUDHandler.INSTANCE.ticker = -1;
+        RemoteDamageModel.clear();
+    }
+
+    @SubscribeEvent
+    public static void onEntityJoin(EntityJoinWorldEvent event) {
+        if (event.getWorld().isRemote && event.getEntity() instanceof RemoteClientPlayerEntity)
+            RemoteDamageModel.create(event.getEntity().getEntityId());
+    }
+
+    @SubscribeEvent
+    public static void onEntityLeave(EntityLeaveWorldEvent event) {
+        if (event.getWorld().isRemote && event.getEntity() instanceof PlayerEntity)
+            RemoteDamageModel.remove(event.getEntity().getEntityId());
     }
 }
@@ -0,0 +1,105 @@
+/*
+ * FirstAid
+ * Copyright (C) 2017-2019
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ichttt.mods.firstaid.client;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import net.minecraft.entity.player.PlayerEntity;
+
+import javax.annotation.Nullable;
+
+/**
+ * Lightweight health state of another player, as replicated by the server.
+ * Part values are only present for nearby teammates, everyone else only gets the overall health.
+ */
+public class RemoteDamageModel {
+    private static final Int2ObjectMap<RemoteDamageModel> MODELS = new Int2ObjectOpenHashMap<>();
+
+    private float healthFraction = 1F;
+    private boolean hasParts = false;
+    private final float[] health = new float[8];
+    private final float[] absorption = new float[8];
+    private final int[] maxHealth = new int[8];
+
+    @Nullable
+    public static RemoteDamageModel get(PlayerEntity player) {
+        return get(player.getEntityId());
+    }
+
+    /**
+     * Does not create the model, updates for players that already left the world are dropped this way
+     */
+    @Nullable
+    public static RemoteDamageModel get(int entityId) {
+        return MODELS.get(entityId);
+    }
+
+    public static void create(int entityId) {
+        MODELS.put(entityId, new RemoteDamageModel());
+    }
+
+    public static void remove(int entityId) {
+        MODELS.remove(entityId);
+    }
+
+    public static void clear() {
+        MODELS.clear();
+    }
+
+    public void setHealthFraction(float healthFraction) {
+        this.healthFraction = healthFraction;
+    }
+
+    public void setParts(float[] health, float[] absorption, int[] maxHealth) {
+        System.arraycopy(health, 0, this.health, 0, 8);
+        System.arraycopy(absorption, 0, this.absorption, 0, 8);
+        System.arraycopy(maxHealth, 0, this.maxHealth, 0, 8);
+        this.hasParts = true;
+    }
+
+    public void clearParts() {
+        this.hasParts = false;
+    }
+
+    /**
+     * @return the overall health between 0 and 1
+     */
+    public float getHealthFraction() {
+        return healthFraction;
+    }
+
+    public boolean hasParts() {
+        return hasParts;
+    }
+
+    /**
+     * Only valid if {@link #hasParts()} is true. Index is the ordinal of the part
+     */
+    public float getHealth(int part) {
+        return health[part];
+    }
+
+    public float getAbsorption(int part) {
+        return absorption[part];
+    }
+
+    public int getMaxHealth(int part) {
+        return maxHealth[part];
+    }
+}
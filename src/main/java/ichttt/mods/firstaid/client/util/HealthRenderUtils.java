@@ -25,7 +25,7 @@ import ichttt.mods.firstaid.FirstAidConfig;
 import ichttt.mods.firstaid.api.damagesystem.AbstractDamageablePart;
 import ichttt.mods.firstaid.api.enums.EnumPlayerPart;
 import ichttt.mods.firstaid.client.gui.FlashStateManager;
-import ichttt.mods.firstaid.common.EventHandler;
+import ichttt.mods.firstaid.common.util.RandomService;
 import it.unimi.dsi.fastutil.ints.Int2IntArrayMap;
 import it.unimi.dsi.fastutil.ints.Int2IntFunction;
 import it.unimi.dsi.fastutil.ints.Int2IntMap;
@@ -38,6 +38,7 @@ import net.minecraft.util.Util;
 
 import java.text.DecimalFormat;
 import java.util.Objects;
+import java.util.Random;
 
 public class HealthRenderUtils {
     public static final ResourceLocation GUI_LOCATION = new ResourceLocation(FirstAid.MODID, "textures/gui/show_wounds.png");
@@ -55,7 +56,7 @@ public class HealthRenderUtils {
 
     public static void drawHealthString(AbstractDamageablePart damageablePart, float xTranslation, float yTranslation, boolean allowSecondLine) {
         float absorption = damageablePart.getAbsorption();
-        String text = TEXT_FORMAT.format(damageablePart.currentHealth) + "/" + damageablePart.getMaxHealth();
+        String text = TEXT_FORMAT.format(damageablePart.getCurrentHealth()) + "/" + damageablePart.getMaxHealth();
         if (absorption > 0) {
             String line2 = "+ " + TEXT_FORMAT.format(absorption);
             if (allowSecondLine) {
@@ -76,7 +77,7 @@ public class HealthRenderUtils {
     }
 
     public static boolean healthChanged(AbstractDamageablePart damageablePart, boolean playerDead) {
-        int current = (int) Math.ceil(damageablePart.currentHealth);
+        int current = (int) Math.ceil(damageablePart.getCurrentHealth());
         if (prevHealth.containsKey(damageablePart.part)) {
             int prev = prevHealth.getInt(damageablePart.part);
             updatePrev(damageablePart.part, current, playerDead);
@@ -95,7 +96,7 @@ public class HealthRenderUtils {
     public static void drawHealth(AbstractDamageablePart damageablePart, float xTranslation, float yTranslation, AbstractGui gui, boolean allowSecondLine) {
         int maxHealth = getMaxHearts(damageablePart.getMaxHealth());
         int maxExtraHealth = getMaxHearts(damageablePart.getAbsorption());
-        int current = (int) Math.ceil(damageablePart.currentHealth);
+        int current = (int) Math.ceil(damageablePart.getCurrentHealth());
         FlashStateManager activeFlashState = Objects.requireNonNull(flashStates.get(damageablePart.part));
 
         if (prevHealth.containsKey(damageablePart.part)) {
@@ -160,8 +161,9 @@ public class HealthRenderUtils {
         GlStateManager.pushMatrix();
         Int2IntMap map = new Int2IntArrayMap();
         if (low) {
+            Random random = RandomService.get();
             for (int i = 0; i < (maxHealth + maxExtraHearts); i++)
-                map.put(i, EventHandler.rand.nextInt(2));
+                map.put(i, random.nextInt(2));
         }
 
         renderMax(regen, map, maxHealth, yTexture, gui, highlight);
@@ -62,13 +62,14 @@ public class PlayerModelRenderer {
     private static void drawPart(AbstractGui gui, AbstractDamageablePart part, int texX, int texY, int sizeX, int sizeY) {
         int rawTexX = texX;
         int maxHealth = part.getMaxHealth();
-        if (part.currentHealth <= 0.001) {
+        float currentHealth = part.getCurrentHealth(); //exact, parts store fixed point health
+        if (currentHealth <= 0F) {
             texX += SIZE * 3;
         }
-        else if (Math.abs(part.currentHealth - maxHealth) > 0.001) {
-            float healthPercentage = part.currentHealth / maxHealth;
+        else if (currentHealth != maxHealth) {
+            float healthPercentage = currentHealth / maxHealth;
             if (healthPercentage >= 1 || healthPercentage <= 0)
-                throw new RuntimeException(String.format("Calculated invalid health for part %s with current health %s and max health %d. Got value %s", part.part, part.currentHealth, maxHealth, healthPercentage));
+                throw new RuntimeException(String.format("Calculated invalid health for part %s with current health %s and max health %d. Got value %s", part.part, currentHealth, maxHealth, healthPercentage));
             texX += SIZE * (healthPercentage > 0.5 ? 1 : 2);
         }
         gui.blit(rawTexX, texY, texX, texY, sizeX, sizeY);
@@ -23,12 +23,10 @@ import com.mojang.brigadier.arguments.FloatArgumentType;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
 import com.mojang.brigadier.exceptions.SimpleCommandExceptionType;
-import ichttt.mods.firstaid.FirstAid;
 import ichttt.mods.firstaid.api.damagesystem.AbstractPlayerDamageModel;
 import ichttt.mods.firstaid.api.enums.EnumPlayerPart;
 import ichttt.mods.firstaid.common.damagesystem.distribution.DamageDistribution;
 import ichttt.mods.firstaid.common.damagesystem.distribution.DirectDamageDistribution;
-import ichttt.mods.firstaid.common.network.MessageReceiveDamage;
 import ichttt.mods.firstaid.common.util.CommonUtils;
 import net.minecraft.command.CommandSource;
 import net.minecraft.command.Commands;
@@ -36,7 +34,6 @@ import net.minecraft.entity.player.ServerPlayerEntity;
 import net.minecraft.util.DamageSource;
 import net.minecraft.util.text.StringTextComponent;
 import net.minecraft.util.text.TranslationTextComponent;
-import net.minecraftforge.fml.network.PacketDistributor;
 
 public class DebugDamageCommand {
     private static final SimpleCommandExceptionType TYPE = new SimpleCommandExceptionType(new StringTextComponent("0 is invalid as damage"));
@@ -63,7 +60,6 @@ public class DebugDamageCommand {
         } else {
             damageModel.getFromEnum(part).heal(-damage, player, debuff);
         }
-        FirstAid.NETWORKING.send(PacketDistributor.PLAYER.with(() -> player), new MessageReceiveDamage(part, damage, 0F));
         if (damageModel.isDead(player)) {
             player.sendMessage(new TranslationTextComponent("death.attack.generic", player.getDisplayName()));
             CommonUtils.killPlayer(player, null);
@@ -22,17 +22,23 @@ import ichttt.mods.firstaid.FirstAid;
 import ichttt.mods.firstaid.FirstAidConfig;
 import ichttt.mods.firstaid.api.IDamageDistribution;
 import ichttt.mods.firstaid.api.damagesystem.AbstractPlayerDamageModel;
-import ichttt.mods.firstaid.api.enums.EnumPlayerPart;
 import ichttt.mods.firstaid.common.apiimpl.FirstAidRegistryImpl;
 import ichttt.mods.firstaid.common.damagesystem.PlayerDamageModel;
+import ichttt.mods.firstaid.common.damagesystem.ProtectionCache;
+import ichttt.mods.firstaid.common.damagesystem.debuff.DebuffScheduler;
 import ichttt.mods.firstaid.common.damagesystem.distribution.DamageDistribution;
 import ichttt.mods.firstaid.common.damagesystem.distribution.HealthDistribution;
+import ichttt.mods.firstaid.common.damagesystem.distribution.HitContext;
+import ichttt.mods.firstaid.common.damagesystem.distribution.PendingDamageQueue;
 import ichttt.mods.firstaid.common.damagesystem.distribution.PreferredDamageDistribution;
 import ichttt.mods.firstaid.common.items.FirstAidItems;
+import ichttt.mods.firstaid.common.network.ClientRequestLimiter;
 import ichttt.mods.firstaid.common.network.MessageConfiguration;
-import ichttt.mods.firstaid.common.network.MessageReceiveDamage;
-import ichttt.mods.firstaid.common.network.MessageSyncDamageModel;
+import ichttt.mods.firstaid.common.network.PacketBundler;
+import ichttt.mods.firstaid.common.network.TrackedModelReplicator;
 import ichttt.mods.firstaid.common.util.CommonUtils;
+import ichttt.mods.firstaid.common.util.HealSourceClassifier;
+import ichttt.mods.firstaid.common.util.RandomService;
 import ichttt.mods.firstaid.common.util.ProjectileHelper;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.LivingEntity;
@@ -40,8 +46,8 @@ import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.entity.player.ServerPlayerEntity;
 import net.minecraft.inventory.EquipmentSlotType;
 import net.minecraft.potion.Effect;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.util.DamageSource;
-import net.minecraft.util.FoodStats;
 import net.minecraft.util.SoundEvent;
 import net.minecraft.util.math.EntityRayTraceResult;
 import net.minecraft.util.math.RayTraceResult;
@@ -52,6 +58,7 @@ import net.minecraft.world.server.ServerWorld;
 import net.minecraftforge.event.AttachCapabilitiesEvent;
 import net.minecraftforge.event.TickEvent;
 import net.minecraftforge.event.entity.ProjectileImpactEvent;
+import net.minecraftforge.event.entity.living.LivingEquipmentChangeEvent;
 import net.minecraftforge.event.entity.living.LivingHealEvent;
 import net.minecraftforge.event.entity.living.LivingHurtEvent;
 import net.minecraftforge.event.entity.player.PlayerEvent;
@@ -60,17 +67,14 @@ import net.minecraftforge.eventbus.api.EventPriority;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.event.server.FMLServerStartingEvent;
 import net.minecraftforge.fml.event.server.FMLServerStoppedEvent;
-import net.minecraftforge.fml.network.PacketDistributor;
+import net.minecraftforge.fml.server.ServerLifecycleHooks;
 import net.minecraftforge.registries.ObjectHolder;
 import org.apache.commons.lang3.tuple.Pair;
 
-import java.util.Arrays;
 import java.util.Map;
-import java.util.Random;
 import java.util.WeakHashMap;
 
 public class EventHandler {
-    public static final Random rand = new Random();
     @ObjectHolder("firstaid:debuff.heartbeat")
     public static final SoundEvent HEARTBEAT = FirstAidItems.getNull();
     @ObjectHolder("firstaid:morphine")
@@ -89,9 +93,7 @@ public class EventHandler {
         DamageSource source = event.getSource();
 
         if (amountToDamage == Float.MAX_VALUE) {
-            damageModel.forEach(damageablePart -> damageablePart.currentHealth = 0F);
-            if (player instanceof ServerPlayerEntity)
-                Arrays.stream(EnumPlayerPart.VALUES).forEach(part -> FirstAid.NETWORKING.send(PacketDistributor.PLAYER.with(() -> (ServerPlayerEntity) player), new MessageReceiveDamage(part, Float.MAX_VALUE, 0F)));
+            damageModel.forEach(damageablePart -> damageablePart.setCurrentHealth(0F));
             event.setCanceled(true);
             CommonUtils.killPlayer(player, source);
             return;
@@ -109,7 +111,10 @@ public class EventHandler {
                     damageDistribution = new PreferredDamageDistribution(slot);
             }
         }
-        DamageDistribution.handleDamageTaken(damageDistribution, damageModel, amountToDamage, player, source, addStat, true);
+        if (FirstAidConfig.GENERAL.coalesceHits.get())
+            PendingDamageQueue.queue(player, damageDistribution, amountToDamage, source, addStat);
+        else
+            DamageDistribution.handleDamageTaken(damageDistribution, damageModel, amountToDamage, player, source, addStat, true);
 
         event.setCanceled(true);
 
@@ -135,13 +140,19 @@ public class EventHandler {
             PlayerEntity player = (PlayerEntity) obj;
             AbstractPlayerDamageModel damageModel = PlayerDamageModel.create();
             event.addCapability(CapProvider.IDENTIFIER, new CapProvider(damageModel));
-            //replace the data manager with our wrapper to grab absorption
-            player.dataManager = new DataManagerWrapper(player, player.dataManager);
+            //hook health and absorption to grab absorption and external health changes
+            PlayerDataInterceptor.install(player, damageModel);
         }
     }
 
     @SubscribeEvent
     public static void tickPlayers(TickEvent.PlayerTickEvent event) {
+        if (!event.player.world.isRemote) {
+            if (event.phase == TickEvent.Phase.START)
+                HealSourceClassifier.beginPlayerTick(event.player);
+            else
+                HealSourceClassifier.endPlayerTick(event.player);
+        }
         if (event.phase == TickEvent.Phase.END && CommonUtils.isSurvivalOrAdventure(event.player)) {
             if (!event.player.isAlive()) return;
             CommonUtils.getDamageModel(event.player).tick(event.player.world, event.player);
@@ -149,6 +160,27 @@ public class EventHandler {
         }
     }
 
+    @SubscribeEvent
+    public static void tickServer(TickEvent.ServerTickEvent event) {
+        if (event.phase == TickEvent.Phase.END) {
+            PendingDamageQueue.flush();
+            MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
+            if (server != null) {
+                for (ServerPlayerEntity player : server.getPlayerList().getPlayers()) {
+                    AbstractPlayerDamageModel damageModel = CommonUtils.getDamageModel(player);
+                    if (damageModel instanceof PlayerDamageModel)
+                        ((PlayerDamageModel) damageModel).syncDirtyParts(player);
+                }
+            }
+            if (server != null)
+                TrackedModelReplicator.tick(server);
+            DebuffScheduler.tick();
+            PacketBundler.flush();
+            ClientRequestLimiter.tick();
+            HitContext.tick();
+        }
+    }
+
     @SubscribeEvent
     public static void tickWorld(TickEvent.WorldTickEvent event) {
         if (event.phase == TickEvent.Phase.END) return;
@@ -195,7 +227,7 @@ public class EventHandler {
             return;
         float amount = event.getAmount();
         //Hacky shit to reduce vanilla regen
-        if (Arrays.stream(Thread.currentThread().getStackTrace()).anyMatch(stackTraceElement -> stackTraceElement.getClassName().equals(FoodStats.class.getName()))) {
+        if (HealSourceClassifier.isNaturalRegen((PlayerEntity) entity)) {
             if (FirstAidConfig.SERVER.allowNaturalRegeneration.get())
                 amount = amount * (float) (double) FirstAidConfig.SERVER.naturalRegenMultiplier.get();
         } else {
@@ -204,7 +236,7 @@ public class EventHandler {
         if (FirstAidConfig.GENERAL.debug.get()) {
             CommonUtils.debugLogStacktrace("External healing: : " + amount);
         }
-        HealthDistribution.distributeHealth(amount, (PlayerEntity) entity, true);
+        HealthDistribution.distributeHealth(amount, (PlayerEntity) entity);
     }
 
     @SubscribeEvent(priority = EventPriority.HIGH)
@@ -212,16 +244,45 @@ public class EventHandler {
         if (!event.getPlayer().world.isRemote) {
             FirstAid.LOGGER.debug("Sending damage model to " + event.getPlayer().getName());
             AbstractPlayerDamageModel damageModel = CommonUtils.getDamageModel(event.getPlayer());
+            RandomService.reset(event.getPlayer());
             if (damageModel.hasTutorial)
                 CapProvider.tutorialDone.add(event.getPlayer().getName().getString());
             ServerPlayerEntity playerMP = (ServerPlayerEntity) event.getPlayer();
-            FirstAid.NETWORKING.send(PacketDistributor.PLAYER.with(() -> playerMP), new MessageConfiguration(damageModel.serializeNBT()));
+            PacketBundler.queue(playerMP, new MessageConfiguration(damageModel, ((PlayerDamageModel) damageModel).markFullySynced()));
         }
     }
 
     @SubscribeEvent(priority =  EventPriority.LOW)
     public static void onLogout(PlayerEvent.PlayerLoggedOutEvent event) {
         hitList.remove(event.getPlayer());
+        PendingDamageQueue.flush(event.getPlayer());
+        if (event.getPlayer() instanceof ServerPlayerEntity) {
+            PacketBundler.remove((ServerPlayerEntity) event.getPlayer());
+            ClientRequestLimiter.remove((ServerPlayerEntity) event.getPlayer());
+            TrackedModelReplicator.remove((ServerPlayerEntity) event.getPlayer());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onEquipmentChange(LivingEquipmentChangeEvent event) {
+        Entity entity = event.getEntity();
+        if (!entity.world.isRemote && CommonUtils.hasDamageModel(entity) && ProtectionCache.affectsProtection(event.getFrom(), event.getTo())) {
+            AbstractPlayerDamageModel damageModel = CommonUtils.getDamageModel((PlayerEntity) entity);
+            if (damageModel instanceof PlayerDamageModel)
+                ((PlayerDamageModel) damageModel).getProtectionCache().invalidate(event.getSlot());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onStartTracking(PlayerEvent.StartTracking event) {
+        if (event.getTarget() instanceof ServerPlayerEntity && event.getPlayer() instanceof ServerPlayerEntity && CommonUtils.hasDamageModel(event.getTarget()))
+            TrackedModelReplicator.startTracking((ServerPlayerEntity) event.getPlayer(), (ServerPlayerEntity) event.getTarget());
+    }
+
+    @SubscribeEvent
+    public static void onStopTracking(PlayerEvent.StopTracking event) {
+        if (event.getTarget() instanceof ServerPlayerEntity && event.getPlayer() instanceof ServerPlayerEntity)
+            TrackedModelReplicator.stopTracking((ServerPlayerEntity) event.getPlayer(), (ServerPlayerEntity) event.getTarget());
     }
 
     @SubscribeEvent
@@ -233,8 +294,8 @@ public class EventHandler {
 
     @SubscribeEvent
     public static void onDimensionChange(PlayerEvent.PlayerChangedDimensionEvent event) {
-        if (!event.getPlayer().world.isRemote && event.getPlayer() instanceof ServerPlayerEntity) //Mojang seems to wipe all caps on teleport
-            FirstAid.NETWORKING.send(PacketDistributor.PLAYER.with(() -> (ServerPlayerEntity) event.getPlayer()), new MessageSyncDamageModel(CommonUtils.getDamageModel(event.getPlayer())));
+        if (!event.getPlayer().world.isRemote) //Mojang seems to wipe all caps on teleport, the client will report a diverged state if so
+            CommonUtils.getDamageModel(event.getPlayer()).scheduleResync();
     }
 
     @SubscribeEvent
@@ -247,6 +308,12 @@ public class EventHandler {
         FirstAid.LOGGER.debug("Cleaning up");
         CapProvider.tutorialDone.clear();
         EventHandler.hitList.clear();
+        PendingDamageQueue.clear();
+        PacketBundler.clear();
+        ClientRequestLimiter.clear();
+        TrackedModelReplicator.clear();
+        DebuffScheduler.clear();
+        RandomService.clear();
     }
 //
 //    @SubscribeEvent TODO PR comapt
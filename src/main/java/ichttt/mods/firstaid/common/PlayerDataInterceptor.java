@@ -0,0 +1,165 @@
+/*
+ * FirstAid
+ * Copyright (C) 2017-2019
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package ichttt.mods.firstaid.common;
+
+import ichttt.mods.firstaid.FirstAidConfig;
+import ichttt.mods.firstaid.api.damagesystem.AbstractPlayerDamageModel;
+import ichttt.mods.firstaid.common.damagesystem.distribution.DamageDistribution;
+import ichttt.mods.firstaid.common.damagesystem.distribution.HealthDistribution;
+import ichttt.mods.firstaid.common.damagesystem.distribution.RandomDamageDistribution;
+import ichttt.mods.firstaid.common.util.CommonUtils;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraft.network.datasync.EntityDataManager;
+import net.minecraft.util.DamageSource;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Intercepts health and absorption of a player by swapping just these two entries of the vanilla data manager.
+ * Every other data parameter is left untouched and runs at vanilla speed.
+ * On the client, only absorption reads are redirected, everything else comes from the server.
+ * The entries keep a direct reference to the damage model, so absorption reads and {@link ichttt.mods.firstaid.common.util.CommonUtils#getDamageModel} skip the capability lookup.
+ */
+public class PlayerDataInterceptor {
+
+    public static void install(PlayerEntity player, AbstractPlayerDamageModel damageModel) {
+        EntityDataManager dataManager = player.getDataManager();
+        Float absorption = dataManager.get(PlayerEntity.ABSORPTION);
+        dataManager.entries.put(PlayerEntity.ABSORPTION.getId(), new AbsorptionEntry(player, damageModel, dataManager, absorption));
+        if (!player.world.isRemote) {
+            Float health = dataManager.get(LivingEntity.HEALTH);
+            dataManager.entries.put(LivingEntity.HEALTH.getId(), new HealthEntry(player, damageModel, health));
+        }
+    }
+
+    /**
+     * @return The damage model referenced by the installed absorption entry, or null if nothing is installed for the player
+     */
+    @Nullable
+    public static AbstractPlayerDamageModel getDamageModel(PlayerEntity player) {
+        EntityDataManager.DataEntry<?> entry = player.getDataManager().entries.get(PlayerEntity.ABSORPTION.getId());
+        return entry instanceof AbsorptionEntry ? ((AbsorptionEntry) entry).damageModel : null;
+    }
+
+    /**
+     * Sets the vanilla health value without redistributing it on the damage model
+     */
+    public static void setHealthUnchecked(PlayerEntity player, float health) {
+        EntityDataManager dataManager = player.getDataManager();
+        EntityDataManager.DataEntry<Float> entry = dataManager.getEntry(LivingEntity.HEALTH);
+        if (entry instanceof HealthEntry) {
+            HealthEntry healthEntry = (HealthEntry) entry;
+            healthEntry.passthrough = true;
+            try {
+                dataManager.set(LivingEntity.HEALTH, health);
+            } finally {
+                healthEntry.passthrough = false;
+            }
+        } else {
+            dataManager.set(LivingEntity.HEALTH, health);
+        }
+    }
+
+    private static class AbsorptionEntry extends EntityDataManager.DataEntry<Float> {
+        private final PlayerEntity player;
+        private final AbstractPlayerDamageModel damageModel;
+        private final EntityDataManager dataManager;
+
+        private AbsorptionEntry(PlayerEntity player, AbstractPlayerDamageModel damageModel, EntityDataManager dataManager, Float value) {
+            super(PlayerEntity.ABSORPTION, value);
+            this.player = player;
+            this.damageModel = damageModel;
+            this.dataManager = dataManager;
+        }
+
+        @Nonnull
+        @Override
+        public Float getValue() {
+            Float stored = super.getValue();
+            if (!player.isAlive())
+                return stored;
+            Float absorption = damageModel.getAbsorption();
+            if (absorption != stored) { //the model keeps the same instance while the value does not change
+                super.setValue(absorption);
+                this.setDirty(true);
+                dataManager.dirty = true;
+            }
+            return absorption;
+        }
+
+        @Override
+        public void setValue(@Nonnull Float value) {
+            if (player.world.isRemote) //values from the server, the model is synced by us
+                super.setValue(value);
+            else
+                damageModel.setAbsorption(value);
+        }
+    }
+
+    private static class HealthEntry extends EntityDataManager.DataEntry<Float> {
+        private final PlayerEntity player;
+        private final AbstractPlayerDamageModel damageModel;
+        private boolean passthrough = false;
+
+        private HealthEntry(PlayerEntity player, AbstractPlayerDamageModel damageModel, Float value) {
+            super(LivingEntity.HEALTH, value);
+            this.player = player;
+            this.damageModel = damageModel;
+        }
+
+        @Override
+        public void setValue(@Nonnull Float value) {
+            if (passthrough) {
+                super.setValue(value);
+                return;
+            }
+            if (value > player.getMaxHealth()) {
+                damageModel.forEach(damageablePart -> damageablePart.setCurrentHealth(damageablePart.getMaxHealth()));
+            } else if (damageModel.isWaitingForHelp()) {
+                if (FirstAidConfig.GENERAL.debug.get())
+                    CommonUtils.debugLogStacktrace("SetHealth falltrough");
+            } else if (FirstAidConfig.watchSetHealth && !value.isInfinite() && !value.isNaN() && value > 0 && player instanceof ServerPlayerEntity && ((ServerPlayerEntity) player).connection != null) {
+                //calculate diff
+                Float orig = getValue();
+                if (orig > 0 && !orig.isNaN() && !orig.isInfinite()) {
+                    float healed = value - orig;
+                    if (Math.abs(healed) > 0.001) {
+                        if (healed < 0) {
+                            if (FirstAidConfig.GENERAL.debug.get()) {
+                                CommonUtils.debugLogStacktrace("DAMAGING: " + (-healed));
+                            }
+                            DamageDistribution.handleDamageTaken(RandomDamageDistribution.NEAREST_KILL, damageModel, -healed, player, DamageSource.MAGIC, true, true);
+                        } else {
+                            if (FirstAidConfig.GENERAL.debug.get()) {
+                                CommonUtils.debugLogStacktrace("HEALING: " + healed);
+                            }
+                            HealthDistribution.addRandomHealth(value, player);
+                        }
+                    }
+                    return;
+                }
+            }
+            super.setValue(value);
+        }
+    }
+}
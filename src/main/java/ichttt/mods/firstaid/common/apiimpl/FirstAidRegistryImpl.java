@@ -19,7 +19,7 @@
 package ichttt.mods.firstaid.common.apiimpl;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Multimap;
 import ichttt.mods.firstaid.FirstAid;
 import ichttt.mods.firstaid.FirstAidConfig;
@@ -31,6 +31,11 @@ import ichttt.mods.firstaid.api.debuff.builder.IDebuffBuilder;
 import ichttt.mods.firstaid.api.enums.EnumDebuffSlot;
 import ichttt.mods.firstaid.api.enums.EnumPlayerPart;
 import ichttt.mods.firstaid.common.damagesystem.debuff.ConstantDebuff;
+import ichttt.mods.firstaid.common.damagesystem.debuff.CustomDebuff;
+import ichttt.mods.firstaid.common.damagesystem.debuff.DebuffDefinition;
+import ichttt.mods.firstaid.common.damagesystem.debuff.DebuffInstance;
+import ichttt.mods.firstaid.common.damagesystem.debuff.DebuffLayout;
+import ichttt.mods.firstaid.common.damagesystem.debuff.DebuffThresholds;
 import ichttt.mods.firstaid.common.damagesystem.debuff.OnHitDebuff;
 import ichttt.mods.firstaid.common.damagesystem.debuff.SharedDebuff;
 import ichttt.mods.firstaid.common.damagesystem.distribution.RandomDamageDistribution;
@@ -44,6 +49,8 @@ import org.apache.commons.lang3.tuple.Pair;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -55,8 +62,25 @@ public class FirstAidRegistryImpl extends FirstAidRegistry {
     public static final FirstAidRegistryImpl INSTANCE = new FirstAidRegistryImpl();
     private final Map<String, IDamageDistribution> DISTRIBUTION_MAP = new ConcurrentHashMap<>();
     private final Map<Item, Pair<Function<ItemStack, AbstractPartHealer>, Function<ItemStack, Integer>>> HEALER_MAP = new ConcurrentHashMap<>();
-    private final Multimap<EnumDebuffSlot, Supplier<IDebuff>> DEBUFFS = HashMultimap.create();
+    private final Multimap<EnumDebuffSlot, Supplier<DebuffDefinition>> DEBUFFS = ArrayListMultimap.create();
+    private final Map<DamageSource, Boolean> BOUND_SOURCES = new IdentityHashMap<>();
     private boolean registrationAllowed = true;
+    //Compiled by finish(), null until then. Both are replaced, never mutated, so readers need no locking
+    private volatile Map<DamageSource, IDamageDistribution> compiledDistributions;
+    private volatile CompiledHealer[] compiledHealers;
+    private volatile DebuffLayout debuffLayout;
+
+    private static class CompiledHealer {
+        private final Item item;
+        private final Function<ItemStack, AbstractPartHealer> factory;
+        private final Function<ItemStack, Integer> applyTime;
+
+        private CompiledHealer(Item item, Pair<Function<ItemStack, AbstractPartHealer>, Function<ItemStack, Integer>> pair) {
+            this.item = item;
+            this.factory = pair.getLeft();
+            this.applyTime = pair.getRight();
+        }
+    }
 
     public static void finish() {
         FirstAidRegistry registryImpl = FirstAidRegistry.getImpl();
@@ -66,6 +90,8 @@ public class FirstAidRegistryImpl extends FirstAidRegistry {
             throw new IllegalStateException("A mod has registered a custom apiimpl for the registry. THIS IS NOT ALLOWED!" +
             "It should be " + INSTANCE.getClass().getName() + " but it actually is " + registryImpl.getClass().getName());
         INSTANCE.registrationAllowed = false;
+        INSTANCE.compile();
+        INSTANCE.debuffLayout = INSTANCE.compileDebuffs();
         if (FirstAidConfig.GENERAL.debug.get()) {
             FirstAid.LOGGER.info("REG READOUT:");
             for (Map.Entry<String, IDamageDistribution> entry : INSTANCE.DISTRIBUTION_MAP.entrySet()) {
@@ -74,6 +100,63 @@ public class FirstAidRegistryImpl extends FirstAidRegistry {
         }
     }
 
+    private synchronized void compile() {
+        Map<DamageSource, IDamageDistribution> distributions = new IdentityHashMap<>(BOUND_SOURCES.size());
+        for (DamageSource source : BOUND_SOURCES.keySet()) {
+            IDamageDistribution distribution = DISTRIBUTION_MAP.get(source.damageType);
+            distributions.put(source, distribution == null ? RandomDamageDistribution.NEAREST_KILL : distribution);
+        }
+        this.compiledDistributions = distributions;
+
+        int maxId = -1;
+        for (Item item : HEALER_MAP.keySet())
+            maxId = Math.max(maxId, Item.getIdFromItem(item));
+        CompiledHealer[] healers = new CompiledHealer[maxId + 1];
+        for (Map.Entry<Item, Pair<Function<ItemStack, AbstractPartHealer>, Function<ItemStack, Integer>>> entry : HEALER_MAP.entrySet()) {
+            int id = Item.getIdFromItem(entry.getKey());
+            if (id >= 0)
+                healers[id] = new CompiledHealer(entry.getKey(), entry.getValue());
+        }
+        this.compiledHealers = healers;
+    }
+
+    private synchronized DebuffLayout compileDebuffs() {
+        EnumDebuffSlot[] slots = EnumDebuffSlot.values();
+        List<DebuffDefinition> definitions = new ArrayList<>();
+        int[] slotStart = new int[slots.length + 1];
+        for (EnumDebuffSlot slot : slots) {
+            slotStart[slot.ordinal()] = definitions.size();
+            for (Supplier<DebuffDefinition> factory : DEBUFFS.get(slot)) {
+                DebuffDefinition definition = factory.get();
+                definitions.add(slot.playerParts.length > 1 ? new SharedDebuff(definition, slot) : definition);
+            }
+        }
+        slotStart[slots.length] = definitions.size();
+        return new DebuffLayout(definitions.toArray(new DebuffDefinition[0]), slotStart);
+    }
+
+    /**
+     * @return The debuff definitions shared by all damage models, see {@link ichttt.mods.firstaid.common.damagesystem.debuff.DebuffState}
+     */
+    @Nonnull
+    public DebuffLayout getDebuffLayout() {
+        DebuffLayout layout = this.debuffLayout;
+        return layout == null ? compileDebuffs() : layout; //not finished yet, don't cache as registration is still open
+    }
+
+    @Nullable
+    private CompiledHealer getCompiledHealer(Item item) {
+        CompiledHealer[] healers = this.compiledHealers;
+        if (healers == null)
+            return null;
+        int id = Item.getIdFromItem(item);
+        if (id < 0 || id >= healers.length)
+            return null;
+        CompiledHealer healer = healers[id];
+        //Ids may be remapped when joining a server, so verify the slot still belongs to this item
+        return healer != null && healer.item == item ? healer : null;
+    }
+
     @Override
     public void bindDamageSourceStandard(@Nonnull DamageSource damageType, @Nonnull List<Pair<EquipmentSlotType, EnumPlayerPart[]>> priorityTable, boolean shufflePriorityTable) {
         bindDamageSourceCustom(damageType, new StandardDamageDistribution(priorityTable, shufflePriorityTable));
@@ -100,6 +183,9 @@ public class FirstAidRegistryImpl extends FirstAidRegistry {
             DISTRIBUTION_MAP.remove(type);
         else
             DISTRIBUTION_MAP.put(type, distributionTable);
+        BOUND_SOURCES.put(damageType, Boolean.TRUE);
+        if (!registrationAllowed)
+            compile();
     }
 
     @Override
@@ -107,11 +193,16 @@ public class FirstAidRegistryImpl extends FirstAidRegistry {
         if (this.HEALER_MAP.containsKey(item))
             FirstAid.LOGGER.warn("Healing type override detected for item " + item);
         this.HEALER_MAP.put(item, Pair.of(factory, applyTime));
+        if (!registrationAllowed)
+            compile();
     }
 
     @Nullable
     @Override
     public AbstractPartHealer getPartHealer(@Nonnull ItemStack type) {
+        CompiledHealer healer = getCompiledHealer(type.getItem());
+        if (healer != null)
+            return healer.factory.apply(type);
         Pair<Function<ItemStack, AbstractPartHealer>, Function<ItemStack, Integer>> pair = this.HEALER_MAP.get(type.getItem());
         if (pair != null)
             return pair.getLeft().apply(type);
@@ -120,6 +211,9 @@ public class FirstAidRegistryImpl extends FirstAidRegistry {
 
     @Override
     public Integer getPartHealingTime(@Nonnull ItemStack stack) {
+        CompiledHealer healer = getCompiledHealer(stack.getItem());
+        if (healer != null)
+            return healer.applyTime.apply(stack);
         Pair<Function<ItemStack, AbstractPartHealer>, Function<ItemStack, Integer>> pair = this.HEALER_MAP.get(stack.getItem());
         if (pair != null)
             return pair.getRight().apply(stack);
@@ -143,33 +237,38 @@ public class FirstAidRegistryImpl extends FirstAidRegistry {
             isEnabled = builder.isEnabledSupplier;
 
         Preconditions.checkArgument(!builder.map.isEmpty(), "Failed to register debuff with condition has set");
-        Supplier<IDebuff> debuff;
+        DebuffThresholds thresholds = DebuffThresholds.compile(builder.map);
+        Supplier<DebuffDefinition> debuff;
         if (builder.isOnHit) {
-            debuff = () -> new OnHitDebuff(builder.potionName, builder.map, isEnabled, builder.sound);
+            debuff = () -> new OnHitDebuff(builder.potionName, thresholds, isEnabled, builder.sound);
         } else {
             Preconditions.checkArgument(builder.sound == null, "Tried to register constant debuff with sound effect.");
-            debuff = () -> new ConstantDebuff(builder.potionName, builder.map, isEnabled);
+            debuff = () -> new ConstantDebuff(builder.potionName, thresholds, isEnabled);
         }
-        registerDebuff(slot, debuff);
+        registerDefinition(slot, debuff);
     }
 
     @Override
-    public synchronized void registerDebuff(@Nonnull EnumDebuffSlot slot, @Nonnull Supplier<IDebuff> debuff) {
+    public void registerDebuff(@Nonnull EnumDebuffSlot slot, @Nonnull Supplier<IDebuff> debuff) {
+        registerDefinition(slot, () -> new CustomDebuff(debuff));
+    }
+
+    private synchronized void registerDefinition(EnumDebuffSlot slot, Supplier<DebuffDefinition> definition) {
         if (!registrationAllowed)
             throw new IllegalStateException("Registration must take place before FMLLoadCompleteEvent");
-
-        if (slot.playerParts.length > 1 && !(debuff instanceof SharedDebuff)) {
-            this.DEBUFFS.put(slot, () -> new SharedDebuff(debuff.get(), slot));
-            return;
-        }
-
-        this.DEBUFFS.put(slot, debuff);
+        //Built in compileDebuffs, slots with more than one part are wrapped by a SharedDebuff there
+        this.DEBUFFS.put(slot, definition);
     }
 
     @Nonnull
     @Override
     public IDamageDistribution getDamageDistribution(@Nonnull DamageSource source) {
-        IDamageDistribution distribution = DISTRIBUTION_MAP.get(source.damageType);
+        Map<DamageSource, IDamageDistribution> compiled = this.compiledDistributions;
+        IDamageDistribution distribution = compiled == null ? null : compiled.get(source);
+        if (distribution != null)
+            return distribution;
+        //Dynamically created sources (entity damage and the like) are resolved by their type name
+        distribution = DISTRIBUTION_MAP.get(source.damageType);
         if (distribution == null)
             distribution = RandomDamageDistribution.NEAREST_KILL;
         return distribution;
@@ -178,6 +277,10 @@ public class FirstAidRegistryImpl extends FirstAidRegistry {
     @Nonnull
     @Override
     public IDebuff[] getDebuffs(@Nonnull EnumDebuffSlot slot) {
-        return DEBUFFS.get(slot).stream().map(Supplier::get).toArray(IDebuff[]::new);
+        DebuffDefinition[] definitions = getDebuffLayout().getDefinitions(slot);
+        IDebuff[] debuffs = new IDebuff[definitions.length];
+        for (int i = 0; i < definitions.length; i++)
+            debuffs[i] = new DebuffInstance(definitions[i]);
+        return debuffs;
     }
 }
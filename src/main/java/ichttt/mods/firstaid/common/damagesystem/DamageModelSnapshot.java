@@ -0,0 +1,175 @@
+/*
+ * FirstAid
+ * Copyright (C) 2017-2019
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package ichttt.mods.firstaid.common.damagesystem;
+
+import ichttt.mods.firstaid.FirstAid;
+import ichttt.mods.firstaid.api.damagesystem.AbstractDamageablePart;
+import ichttt.mods.firstaid.api.damagesystem.AbstractPartHealer;
+import ichttt.mods.firstaid.api.damagesystem.AbstractPlayerDamageModel;
+import ichttt.mods.firstaid.api.enums.EnumPlayerPart;
+import ichttt.mods.firstaid.common.apiimpl.FirstAidRegistryImpl;
+import net.minecraft.item.ItemStack;
+import net.minecraft.network.PacketBuffer;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Primitive copy of the state of all eight parts of a damage model.
+ * Used to roll back damage without round-tripping the model through NBT, and as the wire format for full syncs.
+ */
+public class DamageModelSnapshot {
+    /**
+     * Health values are sent as fixed point shorts in 1/64 health points
+     */
+    public static final float FIXED_POINT_SCALE = PartStorage.FIXED_POINT_SCALE;
+    private static final int FLAG_ABSORPTION = 1;
+    private static final int FLAG_HEALER = 2;
+
+    private final float[] health = new float[8];
+    private final int[] maxHealth = new int[8];
+    private final float[] absorption = new float[8];
+    private final AbstractPartHealer[] healers = new AbstractPartHealer[8];
+    private final ItemStack[] healerStacks = new ItemStack[8];
+    private final int[] healerTicks = new int[8];
+    private final int[] healerHeals = new int[8];
+    private boolean hasTutorial;
+
+    @Nonnull
+    public static DamageModelSnapshot capture(@Nonnull AbstractPlayerDamageModel damageModel) {
+        DamageModelSnapshot snapshot = new DamageModelSnapshot();
+        for (int i = 0; i < 8; i++) {
+            AbstractDamageablePart part = damageModel.getFromEnum(EnumPlayerPart.VALUES[i]);
+            snapshot.health[i] = part.getCurrentHealth();
+            snapshot.maxHealth[i] = part.getMaxHealth();
+            snapshot.absorption[i] = part.getAbsorption();
+            AbstractPartHealer healer = part.activeHealer;
+            if (healer != null) {
+                snapshot.healers[i] = healer;
+                snapshot.healerStacks[i] = healer.stack;
+                snapshot.healerTicks[i] = healer.getTicksPassed();
+                snapshot.healerHeals[i] = healer.getHealsDone();
+            }
+        }
+        snapshot.hasTutorial = damageModel.hasTutorial;
+        return snapshot;
+    }
+
+    @Nonnull
+    public static DamageModelSnapshot read(@Nonnull PacketBuffer buffer) {
+        DamageModelSnapshot snapshot = new DamageModelSnapshot();
+        snapshot.hasTutorial = buffer.readBoolean();
+        for (int i = 0; i < 8; i++) {
+            int flags = buffer.readUnsignedByte();
+            snapshot.health[i] = buffer.readShort() / FIXED_POINT_SCALE;
+            snapshot.maxHealth[i] = buffer.readUnsignedByte();
+            if ((flags & FLAG_ABSORPTION) != 0)
+                snapshot.absorption[i] = buffer.readShort() / FIXED_POINT_SCALE;
+            if ((flags & FLAG_HEALER) != 0) {
+                snapshot.healerStacks[i] = buffer.readItemStack();
+                snapshot.healerTicks[i] = buffer.readVarInt();
+                snapshot.healerHeals[i] = buffer.readVarInt();
+            }
+        }
+        return snapshot;
+    }
+
+    public void write(@Nonnull PacketBuffer buffer) {
+        buffer.writeBoolean(hasTutorial);
+        for (int i = 0; i < 8; i++) {
+            int flags = 0;
+            if (absorption[i] > 0F)
+                flags |= FLAG_ABSORPTION;
+            if (healerStacks[i] != null)
+                flags |= FLAG_HEALER;
+            buffer.writeByte(flags);
+            buffer.writeShort(Math.round(health[i] * FIXED_POINT_SCALE));
+            buffer.writeByte(maxHealth[i]);
+            if ((flags & FLAG_ABSORPTION) != 0)
+                buffer.writeShort(Math.round(absorption[i] * FIXED_POINT_SCALE));
+            if ((flags & FLAG_HEALER) != 0) {
+                buffer.writeItemStack(healerStacks[i]);
+                buffer.writeVarInt(healerTicks[i]);
+                buffer.writeVarInt(healerHeals[i]);
+            }
+        }
+    }
+
+    /**
+     * @return true if the model is still in the captured state
+     */
+    public boolean matches(@Nonnull AbstractPlayerDamageModel damageModel) {
+        if (damageModel.hasTutorial != hasTutorial)
+            return false;
+        for (int i = 0; i < 8; i++) {
+            AbstractDamageablePart part = damageModel.getFromEnum(EnumPlayerPart.VALUES[i]);
+            if (part.getCurrentHealth() != health[i] || part.getMaxHealth() != maxHealth[i] || part.getAbsorption() != absorption[i])
+                return false;
+            AbstractPartHealer healer = part.activeHealer;
+            if (healer == null) {
+                if (healerStacks[i] != null)
+                    return false;
+            } else if (healer.stack != healerStacks[i] || healer.getTicksPassed() != healerTicks[i] || healer.getHealsDone() != healerHeals[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes the captured state back into the model it was taken from
+     */
+    public void restore(@Nonnull AbstractPlayerDamageModel damageModel) {
+        for (int i = 0; i < 8; i++) {
+            AbstractDamageablePart part = damageModel.getFromEnum(EnumPlayerPart.VALUES[i]);
+            AbstractPartHealer healer = healers[i];
+            if (healer != null)
+                healer.loadNBT(healerTicks[i], healerHeals[i]);
+            part.activeHealer = healer;
+            restoreHealth(part, i);
+        }
+    }
+
+    /**
+     * Writes the captured state into a different model.
+     * Healers get recreated from a copy of their stack, so the target does not share any mutable state with the source model.
+     */
+    public void copyTo(@Nonnull AbstractPlayerDamageModel damageModel) {
+        for (int i = 0; i < 8; i++) {
+            AbstractDamageablePart part = damageModel.getFromEnum(EnumPlayerPart.VALUES[i]);
+            ItemStack healerStack = healerStacks[i];
+            part.activeHealer = null;
+            if (healerStack != null) {
+                AbstractPartHealer healer = FirstAidRegistryImpl.INSTANCE.getPartHealer(healerStack.copy());
+                if (healer == null) FirstAid.LOGGER.warn("Failed to lookup healer for item {}", healerStack.getItem());
+                else part.activeHealer = healer.loadNBT(healerTicks[i], healerHeals[i]);
+            }
+            restoreHealth(part, i);
+        }
+        damageModel.hasTutorial = hasTutorial;
+    }
+
+    private void restoreHealth(AbstractDamageablePart part, int index) {
+        part.setMaxHealth(maxHealth[index]);
+        part.setAbsorption(absorption[index]);
+        part.setCurrentHealth(Math.min(part.getMaxHealth(), health[index]));
+        if (part instanceof DamageablePart)
+            ((DamageablePart) part).kickDebuffs();
+    }
+}
@@ -22,9 +22,9 @@ import ichttt.mods.firstaid.FirstAid;
 import ichttt.mods.firstaid.FirstAidConfig;
 import ichttt.mods.firstaid.api.damagesystem.AbstractDamageablePart;
 import ichttt.mods.firstaid.api.damagesystem.AbstractPartHealer;
-import ichttt.mods.firstaid.api.debuff.IDebuff;
 import ichttt.mods.firstaid.api.enums.EnumPlayerPart;
 import ichttt.mods.firstaid.common.apiimpl.FirstAidRegistryImpl;
+import ichttt.mods.firstaid.common.damagesystem.debuff.DebuffState;
 import ichttt.mods.firstaid.common.items.FirstAidItems;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.entity.player.ServerPlayerEntity;
@@ -34,39 +34,43 @@ import net.minecraft.world.World;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.util.Arrays;
 import java.util.Objects;
 
 public class DamageablePart extends AbstractDamageablePart {
-    private int maxHealth;
+    private final PartStorage storage;
+    private final int index;
     @Nonnull
-    private final IDebuff[] debuffs;
-    private float absorption;
+    private final DebuffState debuffState;
+    private final int debuffStart, debuffEnd; //range of our slot in the debuff state
 
-    public DamageablePart(int maxHealth, boolean canCauseDeath, @Nonnull EnumPlayerPart playerPart, @Nonnull IDebuff... debuffs) {
+    public DamageablePart(@Nonnull PartStorage storage, int maxHealth, boolean canCauseDeath, @Nonnull EnumPlayerPart playerPart, @Nonnull DebuffState debuffState, int debuffStart, int debuffEnd) {
         super(maxHealth, canCauseDeath, playerPart);
-        this.maxHealth = maxHealth;
-        this.currentHealth = maxHealth;
-        this.debuffs = debuffs;
+        this.storage = storage;
+        this.index = playerPart.ordinal();
+        storage.setMaxHealth(index, maxHealth);
+        storage.setHealth(index, maxHealth * PartStorage.FIXED_POINT_SCALE);
+        this.debuffState = debuffState;
+        this.debuffStart = debuffStart;
+        this.debuffEnd = debuffEnd;
     }
 
     @Override
     public float heal(float amount, @Nullable PlayerEntity player, boolean applyDebuff) {
         if (amount <= 0F)
             return 0F;
-        float notFitting = Math.abs(Math.min(0F, maxHealth - (currentHealth + amount)));
-        currentHealth = Math.min(maxHealth, currentHealth + amount);
-        if (notFitting > 0) {
-            float oldHealth = currentHealth;
-            currentHealth = Math.min(currentHealth + notFitting, currentHealth);
-            notFitting = notFitting - (currentHealth - oldHealth);
-        }
-        final float finalNotFitting = notFitting;
+        int maxHealth = storage.maxHealth[index];
+        float fitting = Math.min(amount, maxHealth); //more can never fit, and huge heals would overflow the fixed point math
+        int toHeal = PartStorage.toFixed(fitting);
+        int currentHealth = storage.health[index];
+        int newHealth = Math.min(maxHealth * PartStorage.FIXED_POINT_SCALE, currentHealth + toHeal);
+        int notFitting = Math.max(0, currentHealth + toHeal - newHealth);
+        storage.setHealth(index, newHealth);
         if (applyDebuff) {
             Objects.requireNonNull(player, "Got null player with applyDebuff = true");
-            Arrays.stream(debuffs).forEach(debuff -> debuff.handleHealing(amount - finalNotFitting, currentHealth / maxHealth, (ServerPlayerEntity) player));
+            float healthPerMax = PartStorage.toFloat(newHealth) / maxHealth;
+            debuffState.handleHealing(debuffStart, debuffEnd, PartStorage.toFloat(toHeal - notFitting), healthPerMax, (ServerPlayerEntity) player);
         }
-        return notFitting;
+        return PartStorage.toFloat(notFitting) + (amount - fitting);
     }
 
     @Override
@@ -78,20 +82,28 @@ public class DamageablePart extends AbstractDamageablePart {
     public float damage(float amount, @Nullable PlayerEntity player, boolean applyDebuff, float minHealth) {
         if (amount <= 0F)
             return 0F;
+        int maxHealth = storage.maxHealth[index];
         if (minHealth > maxHealth)
             throw new IllegalArgumentException("Cannot damage part with minHealth " + minHealth + " while he has more max health (" + maxHealth + ")");
-        float origAmount = amount;
+        int currentHealth = storage.health[index];
+        int absorption = storage.absorption[index];
+        float dealt = Math.min(amount, PartStorage.toFloat(Math.max(0, currentHealth) + absorption)); //more can never be taken, and huge hits would overflow the fixed point math
+        int origAmount = PartStorage.toFixed(dealt);
+        int toDamage = origAmount;
         if (absorption > 0) {
-            amount = Math.abs(Math.min(0, absorption - origAmount));
-            absorption = Math.max(0, absorption - origAmount);
+            toDamage = Math.max(0, origAmount - absorption);
+            storage.setAbsorption(index, Math.max(0, absorption - origAmount));
         }
-        float notFitting = Math.abs(Math.min(minHealth, currentHealth - amount) - minHealth);
-        currentHealth = Math.max(minHealth, currentHealth - amount);
+        int fixedMinHealth = PartStorage.toFixed(minHealth);
+        int newHealth = Math.max(fixedMinHealth, currentHealth - toDamage);
+        int notFitting = Math.max(0, fixedMinHealth - (currentHealth - toDamage));
+        storage.setHealth(index, newHealth);
         if (applyDebuff) {
             Objects.requireNonNull(player, "Got null player with applyDebuff = true");
-            Arrays.stream(debuffs).forEach(debuff -> debuff.handleDamageTaken(origAmount - notFitting, currentHealth / maxHealth, (ServerPlayerEntity) player));
+            float healthPerMax = PartStorage.toFloat(newHealth) / maxHealth;
+            debuffState.handleDamageTaken(debuffStart, debuffEnd, PartStorage.toFloat(origAmount - notFitting), healthPerMax, (ServerPlayerEntity) player);
         }
-        return notFitting;
+        return PartStorage.toFloat(notFitting) + (amount - dealt);
     }
 
     @Override
@@ -103,18 +115,20 @@ public class DamageablePart extends AbstractDamageablePart {
             if (activeHealer.hasFinished())
                 activeHealer = null;
         }
-        if (!world.isRemote && tickDebuffs)
-            Arrays.stream(debuffs).forEach(debuff -> debuff.update(player, currentHealth / maxHealth));
+        if (!world.isRemote && tickDebuffs) {
+            float healthPerMax = getCurrentHealth() / storage.maxHealth[index];
+            debuffState.update(debuffStart, debuffEnd, player, healthPerMax);
+        }
     }
 
     @Override
     public CompoundNBT serializeNBT() {
         CompoundNBT compound = new CompoundNBT();
-        compound.putFloat("health", currentHealth);
+        compound.putFloat("health", getCurrentHealth());
         if (FirstAidConfig.SERVER.scaleMaxHealth.get())
-            compound.putInt("maxHealth", maxHealth);
-        if (absorption > 0F)
-            compound.putFloat("absorption", absorption);
+            compound.putInt("maxHealth", storage.maxHealth[index]);
+        if (storage.absorption[index] > 0)
+            compound.putFloat("absorption", getAbsorption());
         if (activeHealer != null) {
             compound.put("healer", activeHealer.stack.serializeNBT());
             compound.putInt("itemTicks", activeHealer.getTicksPassed());
@@ -128,8 +142,8 @@ public class DamageablePart extends AbstractDamageablePart {
         if (nbt == null)
             return;
         if (nbt.contains("maxHealth") && FirstAidConfig.SERVER.scaleMaxHealth.get())
-            maxHealth = nbt.getInt("maxHealth");
-        currentHealth = Math.min(maxHealth, nbt.getFloat("health"));
+            storage.setMaxHealth(index, nbt.getInt("maxHealth"));
+        storage.setHealth(index, PartStorage.toFixed(Math.min(storage.maxHealth[index], nbt.getFloat("health"))));
         ItemStack stack = null;
         if (nbt.contains("healingItem"))
             stack = new ItemStack(nbt.getByte("healingItem") == 1 ? FirstAidItems.PLASTER : FirstAidItems.BANDAGE);
@@ -142,9 +156,24 @@ public class DamageablePart extends AbstractDamageablePart {
             else activeHealer = healer.loadNBT(nbt.getInt("itemTicks"), nbt.getInt("itemHeals"));
         }
         if (nbt.contains("absorption"))
-            absorption = nbt.getFloat("absorption");
+            storage.setAbsorption(index, PartStorage.toFixed(nbt.getFloat("absorption")));
+        kickDebuffs();
+    }
+
+    void kickDebuffs() {
         //kick constant debuffs active
-        Arrays.stream(debuffs).forEach(debuff -> debuff.handleHealing(0F, currentHealth / maxHealth, null));
+        float healthPerMax = getCurrentHealth() / storage.maxHealth[index];
+        debuffState.handleHealing(debuffStart, debuffEnd, 0F, healthPerMax, null);
+    }
+
+    @Override
+    public float getCurrentHealth() {
+        return PartStorage.toFloat(storage.health[index]);
+    }
+
+    @Override
+    public void setCurrentHealth(float currentHealth) {
+        storage.setHealth(index, PartStorage.toFixed(currentHealth));
     }
 
     @Override
@@ -152,13 +181,14 @@ public class DamageablePart extends AbstractDamageablePart {
         if (absorption > 4F && FirstAidConfig.SERVER.capMaxHealth.get())
             absorption = 4F;
         if (absorption > 32F) absorption = 32F;
-        this.absorption = absorption;
-        currentHealth = Math.min(maxHealth + absorption, currentHealth);
+        int fixedAbsorption = PartStorage.toFixed(absorption);
+        storage.setAbsorption(index, fixedAbsorption);
+        storage.setHealth(index, Math.min(storage.maxHealth[index] * PartStorage.FIXED_POINT_SCALE + fixedAbsorption, storage.health[index]));
     }
 
     @Override
     public float getAbsorption() {
-        return absorption;
+        return PartStorage.toFloat(storage.absorption[index]);
     }
 
     @Override
@@ -167,12 +197,13 @@ public class DamageablePart extends AbstractDamageablePart {
             maxHealth = 12;
         if (maxHealth > 128) //Apply a max cap even if disabled - This is already OP and I know no use case where the limit might be reached
             maxHealth = 128;
-        this.maxHealth = Math.max(2, maxHealth); //set 2 as a minimum
-        this.currentHealth = Math.min(currentHealth, this.maxHealth);
+        maxHealth = Math.max(2, maxHealth); //set 2 as a minimum
+        storage.setMaxHealth(index, maxHealth);
+        storage.setHealth(index, Math.min(storage.health[index], maxHealth * PartStorage.FIXED_POINT_SCALE));
     }
 
     @Override
     public int getMaxHealth() {
-        return maxHealth;
+        return storage.maxHealth[index];
     }
 }
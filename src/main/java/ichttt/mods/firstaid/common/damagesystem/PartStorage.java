@@ -0,0 +1,99 @@
+/*
+ * FirstAid
+ * Copyright (C) 2017-2019
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package ichttt.mods.firstaid.common.damagesystem;
+
+import ichttt.mods.firstaid.common.util.PartSet;
+
+/**
+ * Dense per-part numbers of a {@link PlayerDamageModel}, indexed by {@link ichttt.mods.firstaid.api.enums.EnumPlayerPart#ordinal()}.
+ * The {@link DamageablePart}s are views on these arrays.
+ * All writes go through the setters, which keep the totals and the set of empty parts up to date.
+ * Health and absorption are stored as fixed point values in 1/{@value #FIXED_POINT_SCALE} health points, so all arithmetic on them is exact.
+ */
+public class PartStorage {
+    public static final int FIXED_POINT_SCALE = 64;
+    private static final float MAX_FIXED = Integer.MAX_VALUE / 16; //sums over all parts can not overflow, still far beyond any real health value
+    final int[] health = new int[8];
+    final int[] absorption = new int[8];
+    final int[] maxHealth = new int[8];
+    boolean absorptionDirty = false;
+    private int totalHealth = 0;
+    private int totalMaxHealth = 0;
+    private int emptyMask = PartSet.ALL;
+    private int revision = 0;
+
+    public static int toFixed(float value) {
+        return Math.round(Math.max(-MAX_FIXED, Math.min(MAX_FIXED, value * FIXED_POINT_SCALE)));
+    }
+
+    public static float toFloat(int fixed) {
+        return fixed / (float) FIXED_POINT_SCALE; //exact, the scale is a power of two
+    }
+
+    void setHealth(int index, int value) {
+        if (health[index] == value)
+            return;
+        totalHealth += value - health[index];
+        health[index] = value;
+        if (value <= 0)
+            emptyMask |= 1 << index;
+        else
+            emptyMask &= ~(1 << index);
+        revision++;
+    }
+
+    void setMaxHealth(int index, int value) {
+        if (maxHealth[index] == value)
+            return;
+        totalMaxHealth += value - maxHealth[index];
+        maxHealth[index] = value;
+        revision++;
+    }
+
+    void setAbsorption(int index, int value) {
+        if (absorption[index] == value)
+            return;
+        absorption[index] = value;
+        absorptionDirty = true;
+        revision++;
+    }
+
+    int getTotalHealth() {
+        return totalHealth;
+    }
+
+    int getTotalMaxHealth() {
+        return totalMaxHealth;
+    }
+
+    /**
+     * @return The parts that have no health left, as a {@link PartSet}
+     */
+    int getEmptyMask() {
+        return emptyMask;
+    }
+
+    /**
+     * @return A counter that changes whenever health, absorption or max health of any part changes
+     */
+    int getRevision() {
+        return revision;
+    }
+}
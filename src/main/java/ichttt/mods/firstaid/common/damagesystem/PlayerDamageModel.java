@@ -20,20 +20,26 @@ package ichttt.mods.firstaid.common.damagesystem;
 
 import ichttt.mods.firstaid.FirstAid;
 import ichttt.mods.firstaid.FirstAidConfig;
-import ichttt.mods.firstaid.api.FirstAidRegistry;
 import ichttt.mods.firstaid.api.damagesystem.AbstractDamageablePart;
 import ichttt.mods.firstaid.api.damagesystem.AbstractPlayerDamageModel;
-import ichttt.mods.firstaid.api.debuff.IDebuff;
 import ichttt.mods.firstaid.api.enums.EnumDebuffSlot;
 import ichttt.mods.firstaid.api.enums.EnumPlayerPart;
 import ichttt.mods.firstaid.client.util.HealthRenderUtils;
 import ichttt.mods.firstaid.common.CapProvider;
-import ichttt.mods.firstaid.common.DataManagerWrapper;
+import ichttt.mods.firstaid.common.PlayerDataInterceptor;
 import ichttt.mods.firstaid.common.EventHandler;
 import ichttt.mods.firstaid.common.apiimpl.FirstAidRegistryImpl;
-import ichttt.mods.firstaid.common.damagesystem.debuff.SharedDebuff;
+import ichttt.mods.firstaid.common.damagesystem.debuff.DebuffLayout;
+import ichttt.mods.firstaid.common.damagesystem.debuff.DebuffState;
+import ichttt.mods.firstaid.common.damagesystem.distribution.HitContext;
+import ichttt.mods.firstaid.common.network.ClientRequestLimiter;
+import ichttt.mods.firstaid.common.network.MessageStateCheck;
 import ichttt.mods.firstaid.common.network.MessageSyncDamageModel;
+import ichttt.mods.firstaid.common.network.MessageUpdateParts;
+import ichttt.mods.firstaid.common.network.PacketBundler;
 import ichttt.mods.firstaid.common.util.CommonUtils;
+import ichttt.mods.firstaid.common.util.PartSet;
+import ichttt.mods.firstaid.common.util.RandomService;
 import net.minecraft.client.Minecraft;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.entity.player.ServerPlayerEntity;
@@ -42,52 +48,77 @@ import net.minecraft.potion.EffectInstance;
 import net.minecraft.world.World;
 import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.api.distmarker.OnlyIn;
-import net.minecraftforge.fml.network.PacketDistributor;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
-import java.util.Set;
+import java.util.Random;
+import java.util.function.Consumer;
 
 public class PlayerDamageModel extends AbstractPlayerDamageModel {
-    private final Set<SharedDebuff> sharedDebuffs = new HashSet<>();
+    private final PartStorage storage;
+    private final AbstractDamageablePart[] parts;
+    private final int criticalMask;
+    private final DebuffState debuffState;
     private int morphineTicksLeft = 0;
     private int sleepBlockTicks = 0;
     private float prevHealthCurrent = -1F;
+    private int prevHealthRevision = -1;
+    private float prevPlayerMaxHealth = -1F;
     private float prevScaleFactor;
     private boolean waitingForHelp = false;
     private final boolean noCritical;
     private boolean needsMorphineUpdate = false;
     private int resyncTimer = -1;
+    private final int[] syncedHealth = new int[8]; //fixed point, see PartStorage
+    private final int[] syncedAbsorption = new int[8];
+    private final int[] syncedMaxHealth = new int[8];
+    private int syncSequence = 0;
+    private boolean stateCheckPending = false;
+    private int checkedSequence = -1;
+    private int checkedChecksum;
+    private DamageModelSnapshot fullSyncSnapshot;
+    private byte[] encodedFullSync;
+    private int fullSyncSequence = -1;
+    private final ProtectionCache protectionCache = new ProtectionCache();
+    private final HitContext hitContext = new HitContext();
+    private Float absorption = 0F;
 
     public static PlayerDamageModel create() {
-        FirstAidRegistry registry = FirstAidRegistryImpl.INSTANCE;
-        IDebuff[] headDebuffs = registry.getDebuffs(EnumDebuffSlot.HEAD);
-        IDebuff[] bodyDebuffs = registry.getDebuffs(EnumDebuffSlot.BODY);
-        IDebuff[] armsDebuffs = registry.getDebuffs(EnumDebuffSlot.ARMS);
-        IDebuff[] legFootDebuffs = registry.getDebuffs(EnumDebuffSlot.LEGS_AND_FEET);
-        return new PlayerDamageModel(headDebuffs, bodyDebuffs, armsDebuffs, legFootDebuffs);
-    }
-
-    protected PlayerDamageModel(IDebuff[] headDebuffs, IDebuff[] bodyDebuffs, IDebuff[] armDebuffs, IDebuff[] legFootDebuffs) {
-        super(new DamageablePart(FirstAidConfig.SERVER.maxHealthHead.get(),      FirstAidConfig.SERVER.causeDeathHead.get(),  EnumPlayerPart.HEAD,       headDebuffs   ),
-              new DamageablePart(FirstAidConfig.SERVER.maxHealthLeftArm.get(),   false,                         EnumPlayerPart.LEFT_ARM,   armDebuffs    ),
-              new DamageablePart(FirstAidConfig.SERVER.maxHealthLeftLeg.get(),   false,                         EnumPlayerPart.LEFT_LEG,   legFootDebuffs),
-              new DamageablePart(FirstAidConfig.SERVER.maxHealthLeftFoot.get(),  false,                         EnumPlayerPart.LEFT_FOOT,  legFootDebuffs),
-              new DamageablePart(FirstAidConfig.SERVER.maxHealthBody.get(),      FirstAidConfig.SERVER.causeDeathBody.get(),  EnumPlayerPart.BODY,       bodyDebuffs   ),
-              new DamageablePart(FirstAidConfig.SERVER.maxHealthRightArm.get(),  false,                         EnumPlayerPart.RIGHT_ARM,  armDebuffs    ),
-              new DamageablePart(FirstAidConfig.SERVER.maxHealthRightLeg.get(),  false,                         EnumPlayerPart.RIGHT_LEG,  legFootDebuffs),
-              new DamageablePart(FirstAidConfig.SERVER.maxHealthRightFoot.get(), false,                         EnumPlayerPart.RIGHT_FOOT, legFootDebuffs));
-        for (IDebuff debuff : armDebuffs)
-            this.sharedDebuffs.add((SharedDebuff) debuff);
-        for (IDebuff debuff : legFootDebuffs)
-            this.sharedDebuffs.add((SharedDebuff) debuff);
+        return new PlayerDamageModel(FirstAidRegistryImpl.INSTANCE.getDebuffLayout());
+    }
+
+    protected PlayerDamageModel(DebuffLayout layout) {
+        this(new PartStorage(), layout, new DebuffState(layout.definitions));
+    }
+
+    private PlayerDamageModel(PartStorage storage, DebuffLayout layout, DebuffState debuffState) {
+        super(createPart(storage, FirstAidConfig.SERVER.maxHealthHead.get(),      FirstAidConfig.SERVER.causeDeathHead.get(),  EnumPlayerPart.HEAD,       layout, debuffState, EnumDebuffSlot.HEAD         ),
+              createPart(storage, FirstAidConfig.SERVER.maxHealthLeftArm.get(),   false,                         EnumPlayerPart.LEFT_ARM,   layout, debuffState, EnumDebuffSlot.ARMS         ),
+              createPart(storage, FirstAidConfig.SERVER.maxHealthLeftLeg.get(),   false,                         EnumPlayerPart.LEFT_LEG,   layout, debuffState, EnumDebuffSlot.LEGS_AND_FEET),
+              createPart(storage, FirstAidConfig.SERVER.maxHealthLeftFoot.get(),  false,                         EnumPlayerPart.LEFT_FOOT,  layout, debuffState, EnumDebuffSlot.LEGS_AND_FEET),
+              createPart(storage, FirstAidConfig.SERVER.maxHealthBody.get(),      FirstAidConfig.SERVER.causeDeathBody.get(),  EnumPlayerPart.BODY,       layout, debuffState, EnumDebuffSlot.BODY         ),
+              createPart(storage, FirstAidConfig.SERVER.maxHealthRightArm.get(),  false,                         EnumPlayerPart.RIGHT_ARM,  layout, debuffState, EnumDebuffSlot.ARMS         ),
+              createPart(storage, FirstAidConfig.SERVER.maxHealthRightLeg.get(),  false,                         EnumPlayerPart.RIGHT_LEG,  layout, debuffState, EnumDebuffSlot.LEGS_AND_FEET),
+              createPart(storage, FirstAidConfig.SERVER.maxHealthRightFoot.get(), false,                         EnumPlayerPart.RIGHT_FOOT, layout, debuffState, EnumDebuffSlot.LEGS_AND_FEET));
+        this.storage = storage;
+        this.debuffState = debuffState;
+        this.parts = new AbstractDamageablePart[8];
+        int criticalMask = 0;
+        for (EnumPlayerPart part : EnumPlayerPart.VALUES) {
+            AbstractDamageablePart damageablePart = super.getFromEnum(part);
+            parts[part.ordinal()] = damageablePart;
+            if (damageablePart.canCauseDeath)
+                criticalMask |= part.getMask();
+        }
+        this.criticalMask = criticalMask;
         noCritical = !FirstAidConfig.SERVER.causeDeathBody.get() && !FirstAidConfig.SERVER.causeDeathHead.get();
+        Arrays.fill(syncedHealth, -1); //force an initial sync
     }
 
     @Override
@@ -139,24 +170,22 @@ public class PlayerDamageModel extends AbstractPlayerDamageModel {
             world.getProfiler().endSection();
             return;
         }
-        if (!world.isRemote && resyncTimer != -1) {
-            resyncTimer--;
-            if (resyncTimer == 0) {
-                resyncTimer = -1;
-                FirstAid.NETWORKING.send(PacketDistributor.PLAYER.with(() -> (ServerPlayerEntity) player), new MessageSyncDamageModel(this));
+        //only mirror to vanilla health if our totals or the max health attribute changed
+        float playerMaxHealth = player.getMaxHealth();
+        if (storage.getRevision() != prevHealthRevision || playerMaxHealth != prevPlayerMaxHealth) {
+            prevHealthRevision = storage.getRevision();
+            prevPlayerMaxHealth = playerMaxHealth;
+            float newCurrentHealth = (currentHealth / getCurrentMaxHealth()) * playerMaxHealth;
+
+            if (Float.isInfinite(newCurrentHealth)) {
+                FirstAid.LOGGER.error("Error calculating current health: Value was infinite"); //Shouldn't happen anymore, but let's be safe
+            } else {
+                if (newCurrentHealth != prevHealthCurrent)
+                    PlayerDataInterceptor.setHealthUnchecked(player, newCurrentHealth);
+                prevHealthCurrent = newCurrentHealth;
             }
         }
 
-        float newCurrentHealth = (currentHealth / getCurrentMaxHealth()) * player.getMaxHealth();
-
-        if (Float.isInfinite(newCurrentHealth)) {
-            FirstAid.LOGGER.error("Error calculating current health: Value was infinite"); //Shouldn't happen anymore, but let's be safe
-        } else {
-            if (newCurrentHealth != prevHealthCurrent)
-                ((DataManagerWrapper) player.dataManager).set_impl(PlayerEntity.HEALTH, newCurrentHealth);
-            prevHealthCurrent = newCurrentHealth;
-        }
-
         if (!this.hasTutorial)
             this.hasTutorial = CapProvider.tutorialDone.contains(player.getName().getString());
 
@@ -176,13 +205,17 @@ public class PlayerDamageModel extends AbstractPlayerDamageModel {
         world.getProfiler().startSection("PartDebuffs");
         forEach(part -> part.tick(world, player, morphine == null));
         if (morphine == null && !world.isRemote)
-            sharedDebuffs.forEach(sharedDebuff -> sharedDebuff.tick(player));
+            debuffState.tickShared(player, this);
         world.getProfiler().endSection();
         world.getProfiler().endSection();
     }
 
-    public static int getRandMorphineDuration() { //Tweak tooltip event when changing as well
-        return ((EventHandler.rand.nextInt(5) * 20 * 15) + 20 * 210);
+    public static int getRandMorphineDuration() {
+        return getRandMorphineDuration(RandomService.get());
+    }
+
+    public static int getRandMorphineDuration(Random random) { //Tweak tooltip event when changing as well
+        return ((random.nextInt(5) * 20 * 15) + 20 * 210);
     }
 
     @Deprecated
@@ -194,7 +227,7 @@ public class PlayerDamageModel extends AbstractPlayerDamageModel {
 
     @Override
     public void applyMorphine(PlayerEntity player) {
-        player.addPotionEffect(new EffectInstance(EventHandler.MORPHINE, getRandMorphineDuration(), 0, false, false));
+        player.addPotionEffect(new EffectInstance(EventHandler.MORPHINE, getRandMorphineDuration(RandomService.get(player)), 0, false, false));
     }
 
     @Deprecated
@@ -203,6 +236,15 @@ public class PlayerDamageModel extends AbstractPlayerDamageModel {
         return morphineTicksLeft;
     }
 
+    private static DamageablePart createPart(PartStorage storage, int maxHealth, boolean canCauseDeath, EnumPlayerPart part, DebuffLayout layout, DebuffState debuffState, EnumDebuffSlot slot) {
+        return new DamageablePart(storage, maxHealth, canCauseDeath, part, debuffState, layout.getStart(slot), layout.getEnd(slot));
+    }
+
+    @Override
+    public AbstractDamageablePart getFromEnum(EnumPlayerPart part) {
+        return parts[part.ordinal()];
+    }
+
     @Override
     @Nonnull
     public Iterator<AbstractDamageablePart> iterator() {
@@ -217,19 +259,20 @@ public class PlayerDamageModel extends AbstractPlayerDamageModel {
             public AbstractDamageablePart next() {
                 if (count >= 8)
                     throw new NoSuchElementException();
-                AbstractDamageablePart part = getFromEnum(EnumPlayerPart.VALUES[count]);
-                count++;
-                return part;
+                return parts[count++];
             }
         };
     }
 
+    @Override
+    public void forEach(Consumer<? super AbstractDamageablePart> action) {
+        for (AbstractDamageablePart part : parts)
+            action.accept(part);
+    }
+
     @Override
     public float getCurrentHealth() {
-        float currentHealth = 0;
-        for (AbstractDamageablePart part : this)
-            currentHealth += part.currentHealth;
-        return currentHealth;
+        return PartStorage.toFloat(storage.getTotalHealth());
     }
 
     @Override
@@ -249,35 +292,32 @@ public class PlayerDamageModel extends AbstractPlayerDamageModel {
         if (player != null && !player.isAlive())
             return true;
 
-        if (this.noCritical) {
-            boolean dead = true;
-            for (AbstractDamageablePart part : this) {
-                if (part.currentHealth > 0) {
-                    dead = false;
-                    break;
-                }
-            }
-            return dead;
-        } else {
-            for (AbstractDamageablePart part : this) {
-                if (part.canCauseDeath && part.currentHealth <= 0) {
-                    return true;
-                }
-            }
-            return false;
-        }
+        int emptyMask = storage.getEmptyMask();
+        if (this.noCritical)
+            return emptyMask == PartSet.ALL;
+        else
+            return (emptyMask & criticalMask) != 0;
     }
 
     @Override
     public Float getAbsorption() { //Float class because of DataManager
-        float value = 0;
-        for (AbstractDamageablePart part : this)
-                value += part.getAbsorption();
-        return value; //Autoboxing FTW
+        if (storage.absorptionDirty) {
+            storage.absorptionDirty = false;
+            int[] partAbsorption = storage.absorption;
+            int total = 0;
+            for (int i = 0; i < 8; i++)
+                total += partAbsorption[i];
+            float value = PartStorage.toFloat(total);
+            if (value != absorption) //keep the same instance if nothing changed, the PlayerDataInterceptor compares by identity
+                absorption = value;
+        }
+        return absorption;
     }
 
     @Override
     public void setAbsorption(float absorption) {
+        if (absorption == getAbsorption())
+            return;
         final float newAbsorption = absorption / 8F;
         forEach(damageablePart -> damageablePart.setAbsorption(newAbsorption));
     }
@@ -289,7 +329,7 @@ public class PlayerDamageModel extends AbstractPlayerDamageModel {
         for (AbstractDamageablePart part : this) {
             int newMax;
             if (FirstAidConfig.CLIENT.overlayMode.get() == FirstAidConfig.Client.OverlayMode.NUMBERS)
-                newMax = Minecraft.getInstance().fontRenderer.getStringWidth(HealthRenderUtils.TEXT_FORMAT.format(part.currentHealth) + "/" + part.getMaxHealth()) + 1;
+                newMax = Minecraft.getInstance().fontRenderer.getStringWidth(HealthRenderUtils.TEXT_FORMAT.format(part.getCurrentHealth()) + "/" + part.getMaxHealth()) + 1;
             else
                 newMax = (int) (((((int) (part.getMaxHealth() + part.getAbsorption() + 0.9999F)) + 1) / 2F) * 9F);
             max = Math.max(max, newMax);
@@ -307,11 +347,7 @@ public class PlayerDamageModel extends AbstractPlayerDamageModel {
 
     @Override
     public int getCurrentMaxHealth() {
-        int maxHealth = 0;
-        for (AbstractDamageablePart part : this) {
-            maxHealth += part.getMaxHealth();
-        }
-        return maxHealth;
+        return storage.getTotalMaxHealth();
     }
 
     @Override
@@ -349,13 +385,13 @@ public class PlayerDamageModel extends AbstractPlayerDamageModel {
         }
         player.revive();
         for (AbstractDamageablePart part : this) {
-            if ((part.canCauseDeath || this.noCritical) && part.currentHealth <= 0F) {
-                part.currentHealth = 1F; // Set the critical health to a non-zero value
+            if ((part.canCauseDeath || this.noCritical) && part.getCurrentHealth() <= 0F) {
+                part.setCurrentHealth(1F); // Set the critical health to a non-zero value
             }
         }
-        //make sure to resync the client health
-        if (!player.world.isRemote && player instanceof ServerPlayerEntity)
-            FirstAid.NETWORKING.send(PacketDistributor.PLAYER.with(() -> (ServerPlayerEntity) player), new MessageSyncDamageModel(this)); //Upload changes to the client
+        //the changed parts are synced at the end of the tick, make sure the client agrees afterwards
+        if (!player.world.isRemote)
+            scheduleResync();
     }
 
     @Override
@@ -378,10 +414,10 @@ public class PlayerDamageModel extends AbstractPlayerDamageModel {
                     int result = (int) floatResult;
                     if (result % 2 == 1) {
                         int partMaxHealth = part.getMaxHealth();
-                        if (part.currentHealth < partMaxHealth && reduced < 4) {
+                        if (part.getCurrentHealth() < partMaxHealth && reduced < 4) {
                             result--;
                             reduced++;
-                        } else if (part.currentHealth > partMaxHealth && added < 4) {
+                        } else if (part.getCurrentHealth() > partMaxHealth && added < 4) {
                             result++;
                             added++;
                         } else if (reduced > added) {
@@ -434,11 +470,126 @@ public class PlayerDamageModel extends AbstractPlayerDamageModel {
 
     @Override
     public void scheduleResync() {
-        if (this.resyncTimer == -1) {
+        if (this.resyncTimer == -1)
             this.resyncTimer = 2;
+    }
+
+    /**
+     * Sends the parts that changed since the last call to the client.
+     * Called once per player at the end of every server tick
+     */
+    public void syncDirtyParts(ServerPlayerEntity player) {
+        int[] health = storage.health;
+        int[] absorption = storage.absorption;
+        int[] maxHealth = storage.maxHealth;
+        int dirtyMask = 0;
+        for (int i = 0; i < 8; i++) {
+            if (health[i] != syncedHealth[i] || absorption[i] != syncedAbsorption[i] || maxHealth[i] != syncedMaxHealth[i]) {
+                syncedHealth[i] = health[i];
+                syncedAbsorption[i] = absorption[i];
+                syncedMaxHealth[i] = maxHealth[i];
+                dirtyMask |= 1 << i;
+            }
+        }
+        if (dirtyMask != 0) {
+            syncSequence++;
+            if (player.connection != null)
+                PacketBundler.queue(player, new MessageUpdateParts(syncSequence, dirtyMask, syncedHealth, syncedAbsorption, syncedMaxHealth)); //encoded right away, no need to copy
+        }
+        //counted down here instead of in tick() so creative, spectating and dead players get checked as well
+        if (resyncTimer != -1 && --resyncTimer == 0) {
+            resyncTimer = -1;
+            stateCheckPending = true;
+        }
+        if (stateCheckPending && player.connection != null) {
+            stateCheckPending = false;
+            checkedSequence = syncSequence;
+            checkedChecksum = getSyncedChecksum();
+            PacketBundler.queue(player, new MessageStateCheck());
+        }
+    }
+
+    /**
+     * Marks the current state as synced. The returned sequence has to be sent to the client along with the full state
+     */
+    public int markFullySynced() {
+        System.arraycopy(storage.health, 0, syncedHealth, 0, 8);
+        System.arraycopy(storage.absorption, 0, syncedAbsorption, 0, 8);
+        System.arraycopy(storage.maxHealth, 0, syncedMaxHealth, 0, 8);
+        return ++syncSequence;
+    }
+
+    /**
+     * Sends the full state to the client. The encoded message is reused as long as the model does not change
+     */
+    public void sendFullSync(ServerPlayerEntity player) {
+        if (encodedFullSync != null && fullSyncSequence == syncSequence && fullSyncSnapshot.matches(this)) {
+            ClientRequestLimiter.onServedFromCache();
         } else {
-            FirstAid.LOGGER.warn("resync already scheduled!");
+            fullSyncSnapshot = DamageModelSnapshot.capture(this);
+            fullSyncSequence = markFullySynced();
+            encodedFullSync = PacketBundler.encode(new MessageSyncDamageModel(fullSyncSnapshot, fullSyncSequence));
         }
+        PacketBundler.queueEncoded(player, encodedFullSync);
+    }
+
+    /**
+     * Compares the state reported by the client with the last state sent to it and only sends the full state if they diverged
+     */
+    public void verifyClientState(ServerPlayerEntity player, int clientSequence, int clientChecksum) {
+        if (checkedSequence == -1)
+            return; //not requested
+        int expectedSequence = checkedSequence;
+        checkedSequence = -1;
+        if (clientSequence == expectedSequence && clientChecksum == checkedChecksum)
+            return;
+        if (FirstAidConfig.GENERAL.debug.get())
+            FirstAid.LOGGER.info("Client state of {} diverged (sequence {} vs {}), sending full state", player.getName().getString(), clientSequence, expectedSequence);
+        sendFullSync(player);
+    }
+
+    /**
+     * @return A counter that changes whenever any part changes, see {@link PartStorage#getRevision()}
+     */
+    public int getPartsRevision() {
+        return storage.getRevision();
+    }
+
+    public int getSyncSequence() {
+        return syncSequence;
+    }
+
+    public void setSyncSequence(int syncSequence) {
+        this.syncSequence = syncSequence;
+    }
+
+    private int getSyncedChecksum() {
+        int checksum = 0;
+        for (int i = 0; i < 8; i++)
+            checksum = checksum(checksum, syncedHealth[i], syncedAbsorption[i], syncedMaxHealth[i]);
+        return checksum;
+    }
+
+    public int getClientChecksum() {
+        int checksum = 0;
+        for (int i = 0; i < 8; i++)
+            checksum = checksum(checksum, storage.health[i], storage.absorption[i], storage.maxHealth[i]);
+        return checksum;
+    }
+
+    private static int checksum(int checksum, int health, int absorption, int maxHealth) {
+        //fixed point values, same precision as the wire format
+        checksum = 31 * checksum + health;
+        checksum = 31 * checksum + absorption;
+        return 31 * checksum + maxHealth;
+    }
+
+    public ProtectionCache getProtectionCache() {
+        return protectionCache;
+    }
+
+    public HitContext getHitContext() {
+        return hitContext;
     }
 
     @Override
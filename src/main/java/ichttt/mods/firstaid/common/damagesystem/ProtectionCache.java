@@ -0,0 +1,144 @@
+/*
+ * FirstAid
+ * Copyright (C) 2017-2019
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ichttt.mods.firstaid.common.damagesystem;
+
+import com.google.common.collect.Iterators;
+import ichttt.mods.firstaid.common.util.ArmorUtils;
+import net.minecraft.enchantment.Enchantment;
+import net.minecraft.enchantment.EnchantmentHelper;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.inventory.EquipmentSlotType;
+import net.minecraft.item.ArmorItem;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.CombatRules;
+import net.minecraft.util.DamageSource;
+import net.minecraft.util.ResourceLocation;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Caches the effective armor, toughness and enchantment protection of every armor slot of a player.
+ * Entries are rebuilt if the stack in the slot is a different one, or if an equipment change swaps the item or its enchantments.
+ * Results are the same as {@link ArmorUtils#applyArmor} and {@link ArmorUtils#applyEnchantmentModifiers}.
+ */
+public class ProtectionCache {
+    private static final int FLAG_BYPASSES_ALL = 1;
+    private static final int FLAG_FIRE = 2;
+    private static final int FLAG_FALL = 4;
+    private static final int FLAG_EXPLOSION = 8;
+    private static final int FLAG_PROJECTILE = 16;
+    private static final int CATEGORIES = 32;
+    @SuppressWarnings("unchecked")
+    private static final Consumer<PlayerEntity>[] BREAK_ANIMATIONS = new Consumer[4];
+
+    static {
+        for (EquipmentSlotType slot : EquipmentSlotType.values()) {
+            if (slot.getSlotType() == EquipmentSlotType.Group.ARMOR)
+                BREAK_ANIMATIONS[slot.getIndex()] = player -> player.sendBreakAnimation(slot);
+        }
+    }
+
+    private final ItemStack[] stacks = new ItemStack[4];
+    private final boolean[] isArmor = new boolean[4];
+    private final float[] armor = new float[4];
+    private final float[] toughness = new float[4];
+    private final boolean[] cacheProtection = new boolean[4];
+    private final int[][] protection = new int[4][CATEGORIES];
+
+    /**
+     * Equipment change events also fire for durability changes, which happen on every hit and do not change the cached values
+     * @return true if the change from one stack to the other may change the protection of the slot
+     */
+    public static boolean affectsProtection(@Nonnull ItemStack from, @Nonnull ItemStack to) {
+        return from.getItem() != to.getItem() || !from.getEnchantmentTagList().equals(to.getEnchantmentTagList());
+    }
+
+    public void invalidate(EquipmentSlotType slot) {
+        if (slot.getSlotType() == EquipmentSlotType.Group.ARMOR)
+            stacks[slot.getIndex()] = null;
+    }
+
+    public float applyArmor(@Nonnull PlayerEntity player, @Nonnull ItemStack stack, @Nonnull DamageSource source, float damage, @Nonnull EquipmentSlotType slot) {
+        if (stack.isEmpty() || source.isUnblockable()) return damage;
+        int index = update(stack, slot);
+        if (!isArmor[index]) return damage;
+        stack.damageItem((int) damage, player, BREAK_ANIMATIONS[index]);
+        return CombatRules.getDamageAfterAbsorb(damage, armor[index], toughness[index]);
+    }
+
+    public float applyEnchantmentModifiers(@Nonnull ItemStack stack, @Nonnull DamageSource source, float damage, @Nonnull EquipmentSlotType slot) {
+        if (stack.isEmpty()) return damage;
+        int index = update(stack, slot);
+        int k;
+        if (cacheProtection[index]) {
+            int category = getCategory(source);
+            k = protection[index][category];
+            if (k == -1) {
+                k = EnchantmentHelper.getEnchantmentModifierDamage(() -> Iterators.singletonIterator(stack), source);
+                protection[index][category] = k;
+            }
+        } else {
+            k = EnchantmentHelper.getEnchantmentModifierDamage(() -> Iterators.singletonIterator(stack), source);
+        }
+        k *= 4;
+
+        if (k > 0)
+            damage = CombatRules.getDamageAfterMagicAbsorb(damage, (float) k);
+        return damage;
+    }
+
+    private int update(ItemStack stack, EquipmentSlotType slot) {
+        int index = slot.getIndex();
+        if (stacks[index] == stack)
+            return index;
+        stacks[index] = stack;
+        Item item = stack.getItem();
+        isArmor[index] = item instanceof ArmorItem;
+        if (isArmor[index]) {
+            ArmorItem armorItem = (ArmorItem) item;
+            armor[index] = ArmorUtils.applyArmorModifier(slot, armorItem.getDamageReduceAmount());
+            toughness[index] = ArmorUtils.applyToughnessModifier(slot, armorItem.getToughness());
+        }
+        //Vanilla protection only depends on the flags of the damage source, modded enchantments may look at anything
+        boolean vanillaOnly = true;
+        for (Enchantment enchantment : EnchantmentHelper.getEnchantments(stack).keySet()) {
+            ResourceLocation name = enchantment.getRegistryName();
+            if (name == null || !name.getNamespace().equals("minecraft")) {
+                vanillaOnly = false;
+                break;
+            }
+        }
+        cacheProtection[index] = vanillaOnly;
+        Arrays.fill(protection[index], -1);
+        return index;
+    }
+
+    private static int getCategory(DamageSource source) {
+        int category = 0;
+        if (source.canHarmInCreative()) category |= FLAG_BYPASSES_ALL;
+        if (source.isFireDamage()) category |= FLAG_FIRE;
+        if (source == DamageSource.FALL) category |= FLAG_FALL;
+        if (source.isExplosion()) category |= FLAG_EXPLOSION;
+        if (source.isProjectile()) category |= FLAG_PROJECTILE;
+        return category;
+    }
+}
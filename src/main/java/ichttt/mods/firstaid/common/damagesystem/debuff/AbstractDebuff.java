@@ -18,8 +18,6 @@
 
 package ichttt.mods.firstaid.common.damagesystem.debuff;
 
-import ichttt.mods.firstaid.api.debuff.IDebuff;
-import it.unimi.dsi.fastutil.floats.Float2IntLinkedOpenHashMap;
 import net.minecraft.potion.Effect;
 import net.minecraft.util.ResourceLocation;
 import net.minecraftforge.registries.ForgeRegistries;
@@ -28,22 +26,22 @@ import javax.annotation.Nonnull;
 import java.util.Objects;
 import java.util.function.BooleanSupplier;
 
-public abstract class AbstractDebuff implements IDebuff {
+public abstract class AbstractDebuff extends DebuffDefinition {
     @Nonnull
     public final Effect effect;
     @Nonnull
     public final BooleanSupplier isEnabled;
     @Nonnull
-    protected final Float2IntLinkedOpenHashMap map;
+    protected final DebuffThresholds thresholds;
 
-    public AbstractDebuff(@Nonnull String potionName, @Nonnull Float2IntLinkedOpenHashMap map, @Nonnull BooleanSupplier isEnabled) {
+    public AbstractDebuff(@Nonnull String potionName, @Nonnull DebuffThresholds thresholds, @Nonnull BooleanSupplier isEnabled) {
         this.effect = Objects.requireNonNull(ForgeRegistries.POTIONS.getValue(new ResourceLocation(potionName)));
         this.isEnabled = isEnabled;
-        this.map = map;
+        this.thresholds = thresholds;
     }
 
     @Override
-    public boolean isEnabled() {
+    public boolean isEnabled(DebuffState state, int index) {
         return isEnabled.getAsBoolean();
     }
 }
@@ -18,68 +18,95 @@
 
 package ichttt.mods.firstaid.common.damagesystem.debuff;
 
-import it.unimi.dsi.fastutil.floats.Float2IntLinkedOpenHashMap;
-import it.unimi.dsi.fastutil.floats.Float2IntMap;
+import ichttt.mods.firstaid.common.EventHandler;
+import ichttt.mods.firstaid.common.util.CommonUtils;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraft.potion.Effect;
 import net.minecraft.potion.EffectInstance;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.function.BooleanSupplier;
 
+/**
+ * Keeps a potion effect active while the health of the part is below a bound.
+ * The effect is refreshed through the {@link DebuffScheduler} instead of counting ticks in every update.
+ */
 public class ConstantDebuff extends AbstractDebuff {
-    private int ticks = 0;
-    private int activeMultiplier = 0;
+    private static final int REFRESH_INTERVAL = 79;
+    private static final int EFFECT_DURATION = 169;
+    private static final int STAGGER_MASK = 31;
 
-    public ConstantDebuff(@Nonnull String potionName, @Nonnull Float2IntLinkedOpenHashMap map, @Nonnull BooleanSupplier isEnabled) {
-        super(potionName, map, isEnabled);
+    public ConstantDebuff(@Nonnull String potionName, @Nonnull DebuffThresholds thresholds, @Nonnull BooleanSupplier isEnabled) {
+        super(potionName, thresholds, isEnabled);
     }
 
-    private void syncMultiplier(float healthPerMax) {
+    private void syncMultiplier(DebuffState state, int index, float healthPerMax, @Nullable ServerPlayerEntity player) {
         if (!this.isEnabled.getAsBoolean())
             return;
-        boolean found = false;
-        for (Float2IntMap.Entry entry : map.float2IntEntrySet()) {
-            if (healthPerMax < entry.getFloatKey()) {
-                ticks = 0;
-                activeMultiplier = entry.getIntValue();
-                found = true;
-                break;
-            }
-        }
-        if (!found)
-            activeMultiplier = 0;
+        state.setLastHealthPerMax(index, healthPerMax);
+        int multiplier = thresholds.getValueAbove(healthPerMax);
+        if (multiplier == state.getMultiplier(index))
+            return;
+        state.setMultiplier(index, multiplier);
+        if (multiplier == 0)
+            state.setWakeTick(index, -1);
+        else if (player != null)
+            start(state, index, player);
+    }
+
+    private void start(DebuffState state, int index, ServerPlayerEntity player) {
+        state.setPlayer(player);
+        if (!canApply(player))
+            return;
+        apply(player, state.getMultiplier(index));
+        //spread the first refresh so players hit at the same time do not refresh in lockstep afterwards
+        int stagger = (player.getEntityId() * 31 + Effect.getId(effect)) & STAGGER_MASK;
+        state.setWakeTick(index, DebuffScheduler.schedule(state, REFRESH_INTERVAL - stagger));
+    }
+
+    //false if the player does not tick debuffs right now, update() restarts us once it does again
+    private boolean canApply(ServerPlayerEntity player) {
+        return !player.removed && player.isAlive() && this.isEnabled.getAsBoolean() && CommonUtils.isSurvivalOrAdventure(player) && player.getActivePotionEffect(EventHandler.MORPHINE) == null;
+    }
+
+    private void apply(ServerPlayerEntity player, int multiplier) {
+        player.addPotionEffect(new EffectInstance(effect, EFFECT_DURATION, multiplier - 1, false, false));
     }
 
     @Override
-    public void handleDamageTaken(float damage, float healthPerMax, ServerPlayerEntity player) {
-        syncMultiplier(healthPerMax);
+    public void wake(DebuffState state, int index, int tick) {
+        ServerPlayerEntity player = state.getPlayer();
+        if (player == null)
+            return;
+        state.setWakeTick(index, -1);
+        if (!canApply(player))
+            return;
+        int multiplier = thresholds.getValueAbove(state.getLastHealthPerMax(index)); //There are apparently some cases where the multiplier does not sync up right... fix this
+        state.setMultiplier(index, multiplier);
+        if (multiplier == 0)
+            return;
+        apply(player, multiplier);
+        state.setWakeTick(index, DebuffScheduler.schedule(state, REFRESH_INTERVAL));
     }
 
     @Override
-    public void handleHealing(float healingDone, float healthPerMax, ServerPlayerEntity player) {
-        syncMultiplier(healthPerMax);
+    public void handleDamageTaken(DebuffState state, int index, float damage, float healthPerMax, ServerPlayerEntity player) {
+        syncMultiplier(state, index, healthPerMax, player);
     }
 
     @Override
-    public void update(PlayerEntity player) {
-        this.update(player, -1);
+    public void handleHealing(DebuffState state, int index, float healingDone, float healthPerMax, @Nullable ServerPlayerEntity player) {
+        syncMultiplier(state, index, healthPerMax, player);
     }
 
     @Override
-    public void update(PlayerEntity player, float healthPerMax) {
-        if (!this.isEnabled.getAsBoolean()) return;
-        if (activeMultiplier == 0) {
-            ticks = 0;
-        } else {
-            if (ticks == 0) {
-                if (healthPerMax != -1)
-                    syncMultiplier(healthPerMax); //There are apparently some cases where the multiplier does not sync up right... fix this
-                if (activeMultiplier != 0)
-                    player.addPotionEffect(new EffectInstance(effect, 169, activeMultiplier - 1, false, false));
-            }
-            ticks++;
-            if (ticks >= 79) ticks = 0;
-        }
+    public void update(DebuffState state, int index, PlayerEntity player, float healthPerMax) {
+        if (healthPerMax != -1)
+            state.setLastHealthPerMax(index, healthPerMax);
+        //cheap check, the actual refreshing happens in wake()
+        if (state.getWakeTick(index) == -1 && state.getMultiplier(index) != 0 && player instanceof ServerPlayerEntity && this.isEnabled.getAsBoolean())
+            start(state, index, (ServerPlayerEntity) player);
     }
 }
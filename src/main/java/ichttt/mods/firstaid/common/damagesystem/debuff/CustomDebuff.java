@@ -0,0 +1,65 @@
+/*
+ * FirstAid
+ * Copyright (C) 2017-2019
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ichttt.mods.firstaid.common.damagesystem.debuff;
+
+import ichttt.mods.firstaid.api.debuff.IDebuff;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.entity.player.ServerPlayerEntity;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.function.Supplier;
+
+/**
+ * A debuff registered by another mod as a {@link Supplier}.
+ * Its state is unknown to us, so every player still gets their own instance, stored in the {@link DebuffState}.
+ */
+public class CustomDebuff extends DebuffDefinition {
+    private final Supplier<IDebuff> factory;
+
+    public CustomDebuff(@Nonnull Supplier<IDebuff> factory) {
+        this.factory = factory;
+    }
+
+    @Override
+    public boolean isEnabled(DebuffState state, int index) {
+        return state.getInstance(index).isEnabled();
+    }
+
+    @Override
+    public void handleDamageTaken(DebuffState state, int index, float damage, float healthPerMax, ServerPlayerEntity player) {
+        state.getInstance(index).handleDamageTaken(damage, healthPerMax, player);
+    }
+
+    @Override
+    public void handleHealing(DebuffState state, int index, float healingDone, float healthPerMax, @Nullable ServerPlayerEntity player) {
+        state.getInstance(index).handleHealing(healingDone, healthPerMax, player);
+    }
+
+    @Override
+    public void update(DebuffState state, int index, PlayerEntity player, float healthPerMax) {
+        state.getInstance(index).update(player, healthPerMax);
+    }
+
+    @Nonnull
+    @Override
+    public IDebuff createInstance() {
+        return factory.get();
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * FirstAid
+ * Copyright (C) 2017-2019
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ichttt.mods.firstaid.common.damagesystem.debuff;
+
+import ichttt.mods.firstaid.api.debuff.IDebuff;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.entity.player.ServerPlayerEntity;
+
+import javax.annotation.Nullable;
+
+/**
+ * Immutable debuff, built once by the registry and shared by all players.
+ * Everything that changes per player is kept in the {@link DebuffState} of the player at the given index.
+ */
+public abstract class DebuffDefinition {
+
+    public abstract boolean isEnabled(DebuffState state, int index);
+
+    public abstract void handleDamageTaken(DebuffState state, int index, float damage, float healthPerMax, ServerPlayerEntity player);
+
+    public abstract void handleHealing(DebuffState state, int index, float healingDone, float healthPerMax, @Nullable ServerPlayerEntity player);
+
+    public void update(DebuffState state, int index, PlayerEntity player, float healthPerMax) {}
+
+    /**
+     * Called by the {@link DebuffState} if the wake tick stored for this debuff is due
+     */
+    public void wake(DebuffState state, int index, int tick) {}
+
+    /**
+     * @return The per player object for debuffs registered by other mods, null if all state lives in the {@link DebuffState}
+     */
+    @Nullable
+    public IDebuff createInstance() {
+        return null;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * FirstAid
+ * Copyright (C) 2017-2019
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ichttt.mods.firstaid.common.damagesystem.debuff;
+
+import ichttt.mods.firstaid.api.debuff.IDebuff;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.entity.player.ServerPlayerEntity;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Standalone {@link IDebuff} for a definition, only used to serve {@link ichttt.mods.firstaid.api.FirstAidRegistry#getDebuffs}.
+ * Damage models do not use these, they share the definitions and keep a single {@link DebuffState}.
+ */
+public class DebuffInstance implements IDebuff {
+    private final DebuffDefinition definition;
+    private final DebuffState state;
+
+    public DebuffInstance(@Nonnull DebuffDefinition definition) {
+        this.definition = definition;
+        this.state = new DebuffState(new DebuffDefinition[]{definition});
+    }
+
+    @Override
+    public void handleDamageTaken(float damage, float healthPerMax, ServerPlayerEntity player) {
+        definition.handleDamageTaken(state, 0, damage, healthPerMax, player);
+    }
+
+    @Override
+    public void handleHealing(float healingDone, float healthPerMax, ServerPlayerEntity player) {
+        definition.handleHealing(state, 0, healingDone, healthPerMax, player);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return definition.isEnabled(state, 0);
+    }
+
+    @Override
+    public void update(PlayerEntity player) {
+        this.update(player, -1);
+    }
+
+    @Override
+    public void update(PlayerEntity player, float healthPerMax) {
+        definition.update(state, 0, player, healthPerMax);
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * FirstAid
+ * Copyright (C) 2017-2019
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ichttt.mods.firstaid.common.damagesystem.debuff;
+
+import ichttt.mods.firstaid.api.enums.EnumDebuffSlot;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+
+/**
+ * The definitions of all slots in one array, compiled once by the registry.
+ * Each player allocates a {@link DebuffState} for it, parts only remember the range of their slot.
+ */
+public class DebuffLayout {
+    @Nonnull
+    public final DebuffDefinition[] definitions;
+    private final int[] slotStart; //indexed by slot ordinal, one extra entry for the end of the last slot
+
+    public DebuffLayout(@Nonnull DebuffDefinition[] definitions, @Nonnull int[] slotStart) {
+        if (slotStart.length != EnumDebuffSlot.values().length + 1)
+            throw new IllegalArgumentException("Expected a start for every slot and the end");
+        this.definitions = definitions;
+        this.slotStart = slotStart;
+    }
+
+    public int getStart(EnumDebuffSlot slot) {
+        return slotStart[slot.ordinal()];
+    }
+
+    public int getEnd(EnumDebuffSlot slot) {
+        return slotStart[slot.ordinal() + 1];
+    }
+
+    @Nonnull
+    public DebuffDefinition[] getDefinitions(EnumDebuffSlot slot) {
+        return Arrays.copyOfRange(definitions, getStart(slot), getEnd(slot));
+    }
+}
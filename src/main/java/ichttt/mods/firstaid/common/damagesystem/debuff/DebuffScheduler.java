@@ -0,0 +1,82 @@
+/*
+ * FirstAid
+ * Copyright (C) 2017-2019
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package ichttt.mods.firstaid.common.damagesystem.debuff;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Server wide hashed timing wheel for debuff work that only has to happen every few seconds.
+ * Each server tick only runs the tasks that are due in this tick, instead of asking every debuff of every player.
+ * Tasks are not removed when cancelled, they have to check on wake up if they are still interested.
+ */
+public class DebuffScheduler {
+    public static final int MAX_DELAY = 127;
+    private static final int SLOTS = MAX_DELAY + 1;
+    private static final List<Task>[] WHEEL = createWheel();
+    private static int tick = 0;
+
+    public interface Task {
+        /**
+         * @param tick The current scheduler tick, compare to the value returned by {@link #schedule(Task, int)}
+         */
+        void wake(int tick);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Task>[] createWheel() {
+        List<Task>[] wheel = new List[SLOTS];
+        for (int i = 0; i < SLOTS; i++)
+            wheel[i] = new ArrayList<>();
+        return wheel;
+    }
+
+    /**
+     * Schedules the task to wake up after the given amount of ticks
+     * @return The tick the task will wake up at
+     */
+    public static int schedule(Task task, int delay) {
+        if (delay < 1 || delay > MAX_DELAY)
+            throw new IllegalArgumentException("Delay " + delay + " out of range [1, " + MAX_DELAY + "]");
+        int wakeTick = tick + delay;
+        WHEEL[wakeTick & MAX_DELAY].add(task);
+        return wakeTick;
+    }
+
+    /**
+     * Called once at the end of every server tick
+     */
+    public static void tick() {
+        tick++;
+        List<Task> due = WHEEL[tick & MAX_DELAY];
+        if (due.isEmpty())
+            return;
+        //tasks can only reschedule into other slots, as the delay is at least one and less than the wheel size
+        for (int i = 0; i < due.size(); i++)
+            due.get(i).wake(tick);
+        due.clear();
+    }
+
+    public static void clear() {
+        for (List<Task> slot : WHEEL)
+            slot.clear();
+        tick = 0;
+    }
+}
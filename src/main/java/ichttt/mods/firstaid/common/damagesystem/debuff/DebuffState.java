@@ -0,0 +1,175 @@
+/*
+ * FirstAid
+ * Copyright (C) 2017-2019
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ichttt.mods.firstaid.common.damagesystem.debuff;
+
+import ichttt.mods.firstaid.api.damagesystem.AbstractPlayerDamageModel;
+import ichttt.mods.firstaid.api.debuff.IDebuff;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.entity.player.ServerPlayerEntity;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Objects;
+
+/**
+ * The per player state of all debuffs of a {@link DebuffLayout}.
+ * The values of debuff i live at i * STRIDE in one int array, so a player only owns a few small arrays instead of an object per debuff.
+ * Wrapped debuffs share the index of their {@link SharedDebuff}, the fields they use do not overlap.
+ */
+public class DebuffState implements DebuffScheduler.Task {
+    private static final int MULTIPLIER = 0;
+    private static final int WAKE_TICK = 1; //-1 if no refresh is scheduled
+    private static final int DAMAGE = 2;
+    private static final int DAMAGE_COUNT = 3;
+    private static final int HEALING = 4;
+    private static final int HEALING_COUNT = 5;
+    private static final int STRIDE = 6;
+    @Nonnull
+    private final DebuffDefinition[] definitions;
+    private final int[] values;
+    private final float[] lastHealthPerMax;
+    @Nullable
+    private final IDebuff[] instances;
+    @Nullable
+    private ServerPlayerEntity player;
+
+    public DebuffState(@Nonnull DebuffDefinition[] definitions) {
+        this.definitions = definitions;
+        this.values = new int[definitions.length * STRIDE];
+        this.lastHealthPerMax = new float[definitions.length];
+        IDebuff[] instances = null;
+        for (int i = 0; i < definitions.length; i++) {
+            values[i * STRIDE + WAKE_TICK] = -1;
+            lastHealthPerMax[i] = 1F;
+            IDebuff instance = definitions[i].createInstance();
+            if (instance != null) {
+                if (instances == null)
+                    instances = new IDebuff[definitions.length];
+                instances[i] = instance;
+            }
+        }
+        this.instances = instances;
+    }
+
+    public void handleDamageTaken(int from, int to, float damage, float healthPerMax, ServerPlayerEntity player) {
+        for (int i = from; i < to; i++)
+            definitions[i].handleDamageTaken(this, i, damage, healthPerMax, player);
+    }
+
+    public void handleHealing(int from, int to, float healingDone, float healthPerMax, @Nullable ServerPlayerEntity player) {
+        for (int i = from; i < to; i++)
+            definitions[i].handleHealing(this, i, healingDone, healthPerMax, player);
+    }
+
+    public void update(int from, int to, PlayerEntity player, float healthPerMax) {
+        for (int i = from; i < to; i++)
+            definitions[i].update(this, i, player, healthPerMax);
+    }
+
+    public void tickShared(PlayerEntity player, AbstractPlayerDamageModel damageModel) {
+        for (int i = 0; i < definitions.length; i++) {
+            DebuffDefinition definition = definitions[i];
+            if (definition instanceof SharedDebuff)
+                ((SharedDebuff) definition).tick(this, i, player, damageModel);
+        }
+    }
+
+    @Override
+    public void wake(int tick) {
+        //one task per player, so look up which debuffs are due
+        for (int i = 0; i < definitions.length; i++) {
+            if (values[i * STRIDE + WAKE_TICK] == tick)
+                definitions[i].wake(this, i, tick);
+        }
+    }
+
+    @Nonnull
+    IDebuff getInstance(int index) {
+        return Objects.requireNonNull(instances == null ? null : instances[index], "No instance for debuff");
+    }
+
+    @Nullable
+    ServerPlayerEntity getPlayer() {
+        return player;
+    }
+
+    void setPlayer(@Nonnull ServerPlayerEntity player) {
+        this.player = player;
+    }
+
+    int getMultiplier(int index) {
+        return values[index * STRIDE + MULTIPLIER];
+    }
+
+    void setMultiplier(int index, int multiplier) {
+        values[index * STRIDE + MULTIPLIER] = multiplier;
+    }
+
+    int getWakeTick(int index) {
+        return values[index * STRIDE + WAKE_TICK];
+    }
+
+    void setWakeTick(int index, int wakeTick) {
+        values[index * STRIDE + WAKE_TICK] = wakeTick;
+    }
+
+    float getLastHealthPerMax(int index) {
+        return lastHealthPerMax[index];
+    }
+
+    void setLastHealthPerMax(int index, float healthPerMax) {
+        lastHealthPerMax[index] = healthPerMax;
+    }
+
+    void addSharedDamage(int index, float damage) {
+        int offset = index * STRIDE;
+        values[offset + DAMAGE] += damage;
+        values[offset + DAMAGE_COUNT]++;
+    }
+
+    void addSharedHealing(int index, float healingDone) {
+        int offset = index * STRIDE;
+        values[offset + HEALING] += healingDone;
+        values[offset + HEALING_COUNT]++;
+    }
+
+    int getSharedDamage(int index) {
+        return values[index * STRIDE + DAMAGE];
+    }
+
+    int getSharedDamageCount(int index) {
+        return values[index * STRIDE + DAMAGE_COUNT];
+    }
+
+    int getSharedHealing(int index) {
+        return values[index * STRIDE + HEALING];
+    }
+
+    int getSharedHealingCount(int index) {
+        return values[index * STRIDE + HEALING_COUNT];
+    }
+
+    void resetShared(int index) {
+        int offset = index * STRIDE;
+        values[offset + DAMAGE] = 0;
+        values[offset + DAMAGE_COUNT] = 0;
+        values[offset + HEALING] = 0;
+        values[offset + HEALING_COUNT] = 0;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * FirstAid
+ * Copyright (C) 2017-2019
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package ichttt.mods.firstaid.common.damagesystem.debuff;
+
+import it.unimi.dsi.fastutil.floats.Float2IntMap;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+
+/**
+ * Immutable, sorted form of the bounds added to a debuff builder.
+ * Shared between all debuffs built from the same builder, lookups are a binary search and do not allocate.
+ */
+public class DebuffThresholds {
+    private final float[] bounds;
+    private final int[] values;
+    private final int[] maxValues; //max of values[0..i], for on hit debuffs
+
+    private DebuffThresholds(float[] bounds, int[] values) {
+        this.bounds = bounds;
+        this.values = values;
+        this.maxValues = new int[values.length];
+        int max = Integer.MIN_VALUE;
+        for (int i = 0; i < values.length; i++) {
+            max = Math.max(max, values[i]);
+            maxValues[i] = max;
+        }
+    }
+
+    @Nonnull
+    public static DebuffThresholds compile(@Nonnull Float2IntMap map) {
+        float[] bounds = map.keySet().toFloatArray();
+        Arrays.sort(bounds);
+        int[] values = new int[bounds.length];
+        for (int i = 0; i < bounds.length; i++)
+            values[i] = map.get(bounds[i]);
+        return new DebuffThresholds(bounds, values);
+    }
+
+    /**
+     * @return The index of the first bound that is greater than the value, or the amount of bounds if there is none
+     */
+    private int firstAbove(float value) {
+        int low = 0;
+        int high = bounds.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (bounds[mid] > value)
+                high = mid;
+            else
+                low = mid + 1;
+        }
+        return low;
+    }
+
+    /**
+     * @return The value of the smallest bound above the value, or 0 if the value is above all bounds
+     */
+    public int getValueAbove(float value) {
+        int index = firstAbove(value);
+        return index < bounds.length ? values[index] : 0;
+    }
+
+    /**
+     * @return The highest value of all bounds the value reaches, or -1 if it reaches none
+     */
+    public int getMaxValueReached(float value) {
+        int reached = firstAbove(value);
+        return reached == 0 ? -1 : maxValues[reached - 1];
+    }
+}
@@ -18,14 +18,11 @@
 
 package ichttt.mods.firstaid.common.damagesystem.debuff;
 
-import ichttt.mods.firstaid.FirstAid;
 import ichttt.mods.firstaid.common.network.MessagePlayHurtSound;
-import it.unimi.dsi.fastutil.floats.Float2IntLinkedOpenHashMap;
-import it.unimi.dsi.fastutil.floats.Float2IntMap;
+import ichttt.mods.firstaid.common.network.PacketBundler;
 import net.minecraft.entity.player.ServerPlayerEntity;
 import net.minecraft.potion.EffectInstance;
 import net.minecraft.util.SoundEvent;
-import net.minecraftforge.fml.network.PacketDistributor;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -36,28 +33,26 @@ public class OnHitDebuff extends AbstractDebuff {
     @Nullable
     private final Supplier<SoundEvent> sound;
 
-    public OnHitDebuff(@Nonnull String potionName, @Nonnull Float2IntLinkedOpenHashMap map, @Nonnull BooleanSupplier isEnabled, @Nullable Supplier<SoundEvent> sound) {
-        super(potionName, map, isEnabled);
+    public OnHitDebuff(@Nonnull String potionName, @Nonnull DebuffThresholds thresholds, @Nonnull BooleanSupplier isEnabled, @Nullable Supplier<SoundEvent> sound) {
+        super(potionName, thresholds, isEnabled);
         this.sound = sound;
     }
 
     @Override
-    public void handleDamageTaken(float damage, float healthPerMax, ServerPlayerEntity player) {
+    public void handleDamageTaken(DebuffState state, int index, float damage, float healthPerMax, ServerPlayerEntity player) {
         if (!this.isEnabled.getAsBoolean())
             return;
-        int value = -1;
-        for (Float2IntMap.Entry entry : map.float2IntEntrySet()) {
-            if (damage >= entry.getFloatKey()) {
-                value = Math.max(value, entry.getIntValue());
-                player.addPotionEffect(new EffectInstance(effect, entry.getIntValue(), 0, false, false));
-            }
-        }
-        if (value != -1 && sound != null)
-            FirstAid.NETWORKING.send(PacketDistributor.PLAYER.with(() -> player), new MessagePlayHurtSound(sound.get(), value));
+        int value = thresholds.getMaxValueReached(damage);
+        if (value == -1)
+            return;
+        //all reached bounds apply the same effect, so only the longest one matters
+        player.addPotionEffect(new EffectInstance(effect, value, 0, false, false));
+        if (sound != null)
+            PacketBundler.queue(player, new MessagePlayHurtSound(sound.get(), value));
     }
 
     @Override
-    public void handleHealing(float healingDone, float healthPerMax, ServerPlayerEntity player) {
+    public void handleHealing(DebuffState state, int index, float healingDone, float healthPerMax, @Nullable ServerPlayerEntity player) {
 
     }
 }
@@ -18,7 +18,6 @@
 
 package ichttt.mods.firstaid.common.damagesystem.debuff;
 
-import ichttt.mods.firstaid.api.CapabilityExtendedHealthSystem;
 import ichttt.mods.firstaid.api.damagesystem.AbstractDamageablePart;
 import ichttt.mods.firstaid.api.damagesystem.AbstractPlayerDamageModel;
 import ichttt.mods.firstaid.api.debuff.IDebuff;
@@ -27,15 +26,13 @@ import ichttt.mods.firstaid.api.enums.EnumPlayerPart;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.entity.player.ServerPlayerEntity;
 
-public class SharedDebuff implements IDebuff {
-    private final IDebuff debuff;
+import javax.annotation.Nullable;
+
+public class SharedDebuff extends DebuffDefinition {
+    private final DebuffDefinition debuff;
     private final EnumPlayerPart[] parts;
-    private int damage;
-    private int healingDone;
-    private int damageCount;
-    private int healingCount;
 
-    public SharedDebuff(IDebuff debuff, EnumDebuffSlot slot) {
+    public SharedDebuff(DebuffDefinition debuff, EnumDebuffSlot slot) {
         if (slot.playerParts.length <= 1)
             throw new IllegalArgumentException("Only slots with more then more parts can be wrapped by SharedDebuff!");
         this.debuff = debuff;
@@ -43,46 +40,52 @@ public class SharedDebuff implements IDebuff {
     }
 
     @Override
-    public void handleDamageTaken(float damage, float healthPerMax, ServerPlayerEntity player) {
-        if (debuff.isEnabled()) {
-            this.damage += damage;
-            this.damageCount++;
-        }
+    public boolean isEnabled(DebuffState state, int index) {
+        return debuff.isEnabled(state, index);
     }
 
     @Override
-    public void handleHealing(float healingDone, float healthPerMax, ServerPlayerEntity player) {
-        if (debuff.isEnabled()) {
-            this.healingDone += healingDone;
-            this.healingCount++;
-        }
+    public void handleDamageTaken(DebuffState state, int index, float damage, float healthPerMax, ServerPlayerEntity player) {
+        if (debuff.isEnabled(state, index))
+            state.addSharedDamage(index, damage);
+    }
+
+    @Override
+    public void handleHealing(DebuffState state, int index, float healingDone, float healthPerMax, @Nullable ServerPlayerEntity player) {
+        if (debuff.isEnabled(state, index))
+            state.addSharedHealing(index, healingDone);
+    }
+
+    @Override
+    public void wake(DebuffState state, int index, int tick) {
+        debuff.wake(state, index, tick);
     }
 
-    public void tick(PlayerEntity player) {
-        if (!debuff.isEnabled() || !(player instanceof ServerPlayerEntity))
+    @Nullable
+    @Override
+    public IDebuff createInstance() {
+        return debuff.createInstance();
+    }
+
+    public void tick(DebuffState state, int index, PlayerEntity player, AbstractPlayerDamageModel damageModel) {
+        if (!debuff.isEnabled(state, index) || !(player instanceof ServerPlayerEntity))
             return;
 
-        AbstractPlayerDamageModel damageModel = player.getCapability(CapabilityExtendedHealthSystem.INSTANCE, null).orElseThrow(() -> new RuntimeException("Could not find damage model for " + player));
         float healthPerMax = 0;
         for (EnumPlayerPart part : parts) {
             AbstractDamageablePart damageablePart = damageModel.getFromEnum(part);
-            healthPerMax += damageablePart.currentHealth / damageablePart.getMaxHealth();
+            healthPerMax += damageablePart.getCurrentHealth() / damageablePart.getMaxHealth();
         }
 
         healthPerMax /= parts.length;
-        if (healingCount > 0) {
-            this.healingDone /= healingCount;
-            debuff.handleHealing(this.healingDone, healthPerMax, (ServerPlayerEntity) player);
-        }
-        if (damageCount > 0) {
-            this.damage /= damageCount;
-            debuff.handleDamageTaken(this.damage, healthPerMax, (ServerPlayerEntity) player);
-        }
-        this.healingDone = 0;
-        this.damage = 0;
-        this.damageCount = 0;
-        this.healingCount = 0;
+        int healingCount = state.getSharedHealingCount(index);
+        if (healingCount > 0)
+            debuff.handleHealing(state, index, state.getSharedHealing(index) / healingCount, healthPerMax, (ServerPlayerEntity) player);
+        int damageCount = state.getSharedDamageCount(index);
+        if (damageCount > 0)
+            debuff.handleDamageTaken(state, index, state.getSharedDamage(index) / damageCount, healthPerMax, (ServerPlayerEntity) player);
+        state.resetShared(index);
 
-        debuff.update(player, healthPerMax);
+        debuff.update(state, index, player, healthPerMax);
     }
 }
@@ -25,33 +25,46 @@ import ichttt.mods.firstaid.api.damagesystem.AbstractDamageablePart;
 import ichttt.mods.firstaid.api.damagesystem.AbstractPlayerDamageModel;
 import ichttt.mods.firstaid.api.enums.EnumPlayerPart;
 import ichttt.mods.firstaid.api.event.FirstAidLivingDamageEvent;
+import ichttt.mods.firstaid.common.damagesystem.DamageModelSnapshot;
 import ichttt.mods.firstaid.common.damagesystem.PlayerDamageModel;
-import ichttt.mods.firstaid.common.network.MessageReceiveDamage;
+import ichttt.mods.firstaid.common.damagesystem.ProtectionCache;
 import ichttt.mods.firstaid.common.util.ArmorUtils;
 import ichttt.mods.firstaid.common.util.CommonUtils;
+import ichttt.mods.firstaid.common.util.RandomService;
 import net.minecraft.entity.player.PlayerEntity;
-import net.minecraft.entity.player.ServerPlayerEntity;
 import net.minecraft.inventory.EquipmentSlotType;
-import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.item.ItemStack;
 import net.minecraft.stats.Stats;
 import net.minecraft.util.DamageSource;
 import net.minecraftforge.common.ForgeHooks;
 import net.minecraftforge.common.MinecraftForge;
-import net.minecraftforge.fml.network.PacketDistributor;
 import org.apache.commons.lang3.tuple.Pair;
 
 import javax.annotation.Nonnull;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
 public abstract class DamageDistribution implements IDamageDistribution {
 
     public static float handleDamageTaken(IDamageDistribution damageDistribution, AbstractPlayerDamageModel damageModel, float damage, @Nonnull PlayerEntity player, @Nonnull DamageSource source, boolean addStat, boolean redistributeIfLeft) {
+        //Only keep the previous state around if someone can actually cancel or inspect the damage
+        DamageModelSnapshot beforeCache = CommonUtils.hasListeners(FirstAidLivingDamageEvent.class) ? DamageModelSnapshot.capture(damageModel) : null;
+        float left = applyDamage(damageDistribution, damageModel, damage, player, source, addStat, redistributeIfLeft);
+        if (beforeCache != null && postDamageEvent(player, damageModel, beforeCache, source, left))
+            return 0F;
+
+        if (damageModel.isDead(player))
+            CommonUtils.killPlayer(player, source);
+        return left;
+    }
+
+    /**
+     * Applies the damage to the model, without posting {@link FirstAidLivingDamageEvent} or checking for death
+     * @return The damage that could not be distributed
+     */
+    static float applyDamage(IDamageDistribution damageDistribution, AbstractPlayerDamageModel damageModel, float damage, @Nonnull PlayerEntity player, @Nonnull DamageSource source, boolean addStat, boolean redistributeIfLeft) {
         if (FirstAidConfig.GENERAL.debug.get()) {
             FirstAid.LOGGER.info("Damaging {} using {} for dmg source {}, redistribute {}, addStat {}", damage, damageDistribution.toString(), source.damageType, redistributeIfLeft, addStat);
         }
-        CompoundNBT beforeCache = damageModel.serializeNBT();
         damage = ArmorUtils.applyGlobalPotionModifiers(player, source, damage);
         //VANILLA COPY - combat tracker and exhaustion
         if (damage != 0.0F) {
@@ -60,36 +73,47 @@ public abstract class DamageDistribution implements IDamageDistribution {
             player.getCombatTracker().trackDamage(source, currentHealth, damage);
         }
 
-        float left = damageDistribution.distributeDamage(damage, player, source, addStat);
-        if (left > 0 && redistributeIfLeft) {
-            damageDistribution = RandomDamageDistribution.NEAREST_KILL;
-            left = damageDistribution.distributeDamage(left, player, source, addStat);
-        }
-        PlayerDamageModel before = PlayerDamageModel.create();
-        before.deserializeNBT(beforeCache);
-        if (MinecraftForge.EVENT_BUS.post(new FirstAidLivingDamageEvent(player, damageModel, before, source, left))) {
-            damageModel.deserializeNBT(beforeCache); //restore prev state
-            return 0F;
+        HitContext hitContext = damageModel instanceof PlayerDamageModel ? ((PlayerDamageModel) damageModel).getHitContext() : null;
+        if (hitContext != null)
+            hitContext.begin();
+        float left;
+        try {
+            left = damageDistribution.distributeDamage(damage, player, source, addStat);
+            if (left > 0 && redistributeIfLeft) {
+                damageDistribution = RandomDamageDistribution.NEAREST_KILL;
+                left = damageDistribution.distributeDamage(left, player, source, addStat);
+            }
+        } finally {
+            if (hitContext != null)
+                hitContext.end();
         }
-
-        if (damageModel.isDead(player))
-            CommonUtils.killPlayer(player, source);
         return left;
     }
 
+    /**
+     * Posts {@link FirstAidLivingDamageEvent} and restores the captured state if it gets canceled
+     * @return true if the event got canceled
+     */
+    static boolean postDamageEvent(@Nonnull PlayerEntity player, AbstractPlayerDamageModel damageModel, DamageModelSnapshot beforeCache, @Nonnull DamageSource source, float left) {
+        if (MinecraftForge.EVENT_BUS.post(FirstAidLivingDamageEvent.withLazyBeforeDamage(player, damageModel, () -> {
+            PlayerDamageModel before = PlayerDamageModel.create();
+            beforeCache.copyTo(before);
+            return before;
+        }, source, left))) {
+            beforeCache.restore(damageModel); //restore prev state
+            return true;
+        }
+        return false;
+    }
+
     protected float minHealth(@Nonnull PlayerEntity player, @Nonnull AbstractDamageablePart part) {
         return 0F;
     }
 
     protected float distributeDamageOnParts(float damage, @Nonnull AbstractPlayerDamageModel damageModel, @Nonnull EnumPlayerPart[] enumParts, @Nonnull PlayerEntity player, boolean addStat) {
-        ArrayList<AbstractDamageablePart> damageableParts = new ArrayList<>(enumParts.length);
-        for (EnumPlayerPart part : enumParts) {
-            damageableParts.add(damageModel.getFromEnum(part));
-        }
-        Collections.shuffle(damageableParts);
-        for (AbstractDamageablePart part : damageableParts) {
+        for (int index : PermutationTables.randomIndexOrder(enumParts.length, RandomService.get(player))) {
+            AbstractDamageablePart part = damageModel.getFromEnum(enumParts[index]);
             float minHealth = minHealth(player, part);
-            FirstAid.NETWORKING.send(PacketDistributor.PLAYER.with(() -> (ServerPlayerEntity) player), new MessageReceiveDamage(part.part, damage, minHealth));
             float dmgDone = damage - part.damage(damage, player, damageModel.getMorphineTicks() == 0, minHealth);
             if (addStat)
                 player.addStat(Stats.DAMAGE_TAKEN, Math.round(dmgDone * 10.0F));
@@ -105,20 +129,38 @@ public abstract class DamageDistribution implements IDamageDistribution {
     }
 
     @Nonnull
-    protected abstract List<Pair<EquipmentSlotType, EnumPlayerPart[]>> getPartList();
+    protected abstract List<Pair<EquipmentSlotType, EnumPlayerPart[]>> getPartList(@Nonnull PlayerEntity player);
 
     @Override
     public float distributeDamage(float damage, @Nonnull PlayerEntity player, @Nonnull DamageSource source, boolean addStat) {
+        return distributeDamageOnSlots(damage, player, source, addStat, getPartList(player));
+    }
+
+    protected float distributeDamageOnSlots(float damage, @Nonnull PlayerEntity player, @Nonnull DamageSource source, boolean addStat, @Nonnull List<Pair<EquipmentSlotType, EnumPlayerPart[]>> partList) {
         AbstractPlayerDamageModel damageModel = CommonUtils.getDamageModel(player);
-        for (Pair<EquipmentSlotType, EnumPlayerPart[]> pair : getPartList()) {
+        ProtectionCache protectionCache = null;
+        HitContext hitContext = null;
+        if (damageModel instanceof PlayerDamageModel) {
+            protectionCache = ((PlayerDamageModel) damageModel).getProtectionCache();
+            hitContext = ((PlayerDamageModel) damageModel).getHitContext();
+        }
+        for (Pair<EquipmentSlotType, EnumPlayerPart[]> pair : partList) {
             EquipmentSlotType slot = pair.getLeft();
-            damage = ArmorUtils.applyArmor(player, player.getItemStackFromSlot(slot), source, damage, slot);
+            ItemStack stack = hitContext != null ? hitContext.getArmorStack(player, slot) : player.getItemStackFromSlot(slot);
+            if (protectionCache != null)
+                damage = protectionCache.applyArmor(player, stack, source, damage, slot);
+            else
+                damage = ArmorUtils.applyArmor(player, stack, source, damage, slot);
             if (damage <= 0F)
                 return 0F;
-            damage = ArmorUtils.applyEnchantmentModifiers(player.getItemStackFromSlot(slot), source, damage);
+            if (protectionCache != null)
+                damage = protectionCache.applyEnchantmentModifiers(stack, source, damage, slot);
+            else
+                damage = ArmorUtils.applyEnchantmentModifiers(stack, source, damage);
             if (damage <= 0F)
                 return 0F;
-            damage = ForgeHooks.onLivingDamage(player, source, damage); //we post every time we damage a part, make it so other mods can modify
+            //we post every time we damage a part, make it so other mods can modify
+            damage = hitContext != null ? hitContext.onLivingDamage(player, source, damage) : ForgeHooks.onLivingDamage(player, source, damage);
             if (damage <= 0F) return 0F;
 
             damage = distributeDamageOnParts(damage, damageModel, pair.getRight(), player, addStat);
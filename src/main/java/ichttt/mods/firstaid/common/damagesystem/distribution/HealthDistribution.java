@@ -18,56 +18,31 @@
 
 package ichttt.mods.firstaid.common.damagesystem.distribution;
 
-import ichttt.mods.firstaid.FirstAid;
 import ichttt.mods.firstaid.api.damagesystem.AbstractDamageablePart;
 import ichttt.mods.firstaid.api.damagesystem.AbstractPlayerDamageModel;
 import ichttt.mods.firstaid.api.enums.EnumPlayerPart;
-import ichttt.mods.firstaid.common.network.MessageAddHealth;
 import ichttt.mods.firstaid.common.util.CommonUtils;
+import ichttt.mods.firstaid.common.util.RandomService;
 import net.minecraft.entity.player.PlayerEntity;
-import net.minecraft.entity.player.ServerPlayerEntity;
-import net.minecraftforge.fml.network.PacketDistributor;
 
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 
 public class HealthDistribution {
-    private static final List<EnumPlayerPart> parts;
-    static {
-        EnumPlayerPart[] partArray = EnumPlayerPart.VALUES;
-        parts = new ArrayList<>(partArray.length);
-        parts.addAll(Arrays.asList(partArray));
-    }
-
-    public static void manageHealth(float health, AbstractPlayerDamageModel damageModel, PlayerEntity player, boolean sendChanges, boolean distribute) {
-        if (sendChanges && player.world.isRemote) {
-            FirstAid.LOGGER.catching(new RuntimeException("Someone set flag sendChanges on the client, this is not supported!"));
-            sendChanges = false;
-        } else if (sendChanges && !(player instanceof ServerPlayerEntity)) { //EntityOtherPlayerMP? log something?
-            sendChanges = false;
-        }
 
+    public static void manageHealth(float health, AbstractPlayerDamageModel damageModel, PlayerEntity player, boolean distribute) {
         float toHeal = distribute ? health / 8F : health;
-        Collections.shuffle(parts, player.world.rand);
-        List<AbstractDamageablePart> damageableParts = new ArrayList<>(parts.size());
-
-        for (EnumPlayerPart part : parts) {
-            damageableParts.add(damageModel.getFromEnum(part));
+        List<AbstractDamageablePart> damageableParts = new ArrayList<>(EnumPlayerPart.VALUES.length);
+        for (int index : PermutationTables.randomIndexOrder(EnumPlayerPart.VALUES.length, RandomService.get(player))) {
+            damageableParts.add(damageModel.getFromEnum(EnumPlayerPart.VALUES[index]));
         }
 
         if (distribute)
-            damageableParts.sort(Comparator.comparingDouble(value -> value.getMaxHealth() - value.currentHealth));
-        float[] healingDone = new float[8];
-
+            damageableParts.sort(Comparator.comparingDouble(value -> value.getMaxHealth() - value.getCurrentHealth()));
         for (int i = 0; i < 8; i++) {
             AbstractDamageablePart part = damageableParts.get(i);
             float diff = toHeal - part.heal(toHeal, player, !player.world.isRemote);
-            //prevent inaccuracy
-            diff = Math.round(diff * 10000.0F) / 10000.0F;
-            healingDone[part.part.ordinal()] = diff;
 
             health -= diff;
             if (distribute) {
@@ -79,18 +54,14 @@ public class HealthDistribution {
                     break;
             }
         }
-
-        if (sendChanges)
-            FirstAid.NETWORKING.send(PacketDistributor.PLAYER.with(() -> (ServerPlayerEntity) player), new MessageAddHealth(healingDone));
+        //changes are sent to the client by the end of tick part sync
     }
 
-    public static void distributeHealth(float health, PlayerEntity player, boolean sendChanges) {
-        AbstractPlayerDamageModel damageModel = CommonUtils.getDamageModel(player);
-        manageHealth(health, damageModel, player, sendChanges, true);
+    public static void distributeHealth(float health, PlayerEntity player) {
+        manageHealth(health, CommonUtils.getDamageModel(player), player, true);
     }
 
-    public static void addRandomHealth(float health, PlayerEntity player, boolean sendChanges) {
-        AbstractPlayerDamageModel damageModel = CommonUtils.getDamageModel(player);
-        manageHealth(health, damageModel, player, sendChanges, false);
+    public static void addRandomHealth(float health, PlayerEntity player) {
+        manageHealth(health, CommonUtils.getDamageModel(player), player, false);
     }
 }
@@ -0,0 +1,97 @@
+/*
+ * FirstAid
+ * Copyright (C) 2017-2019
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ichttt.mods.firstaid.common.damagesystem.distribution;
+
+import ichttt.mods.firstaid.FirstAid;
+import ichttt.mods.firstaid.FirstAidConfig;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.inventory.EquipmentSlotType;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.DamageSource;
+import net.minecraftforge.common.ForgeHooks;
+
+/**
+ * State of the hit that is currently being distributed on a damage model.
+ * Decides how often LivingDamageEvent gets posted, see {@link FirstAidConfig.General#livingDamageEventMode}.
+ * For hits queued by the {@link PendingDamageQueue}, also provides the armor that was worn when the hit was queued.
+ */
+public class HitContext {
+    private static int hits = 0;
+    private static int eventsPosted = 0;
+    private static int ticksSinceReport = 0;
+
+    private int depth = 0;
+    private boolean posted;
+    private float factor;
+    private int hitEventsPosted;
+    private ItemStack[] armor; //indexed by slot index, null to use the armor currently worn
+
+    void begin() {
+        if (depth++ == 0) {
+            posted = false;
+            factor = 1F;
+            hitEventsPosted = 0;
+        }
+    }
+
+    void end() {
+        if (--depth == 0) {
+            hits++;
+            eventsPosted += hitEventsPosted;
+            if (FirstAidConfig.GENERAL.debug.get())
+                FirstAid.LOGGER.info("Posted LivingDamageEvent {} times for this hit", hitEventsPosted);
+        }
+    }
+
+    void setArmor(ItemStack[] armor) {
+        this.armor = armor;
+    }
+
+    ItemStack getArmorStack(PlayerEntity player, EquipmentSlotType slot) {
+        return armor != null ? armor[slot.getIndex()] : player.getItemStackFromSlot(slot);
+    }
+
+    float onLivingDamage(PlayerEntity player, DamageSource source, float damage) {
+        if (depth == 0 || FirstAidConfig.GENERAL.livingDamageEventMode.get() == FirstAidConfig.General.LivingDamageEventMode.PER_SLOT) {
+            hitEventsPosted++;
+            return ForgeHooks.onLivingDamage(player, source, damage);
+        }
+        if (posted)
+            return damage * factor;
+        posted = true;
+        hitEventsPosted++;
+        float result = ForgeHooks.onLivingDamage(player, source, damage);
+        factor = Math.max(0F, result / damage);
+        return result;
+    }
+
+    /**
+     * Called at the end of every server tick
+     */
+    public static void tick() {
+        int interval = FirstAidConfig.GENERAL.statsInterval.get() * 20;
+        if (interval == 0 || ++ticksSinceReport < interval)
+            return;
+        ticksSinceReport = 0;
+        if (hits > 0)
+            FirstAid.LOGGER.info("Posted LivingDamageEvent {} times for {} hits in the last {} seconds ({} per hit)", eventsPosted, hits, interval / 20, String.format("%.2f", eventsPosted / (float) hits));
+        hits = 0;
+        eventsPosted = 0;
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * FirstAid
+ * Copyright (C) 2017-2019
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package ichttt.mods.firstaid.common.damagesystem.distribution;
+
+import ichttt.mods.firstaid.api.IDamageDistribution;
+import ichttt.mods.firstaid.api.damagesystem.AbstractPlayerDamageModel;
+import ichttt.mods.firstaid.api.event.FirstAidLivingDamageEvent;
+import ichttt.mods.firstaid.common.damagesystem.DamageModelSnapshot;
+import ichttt.mods.firstaid.common.damagesystem.PlayerDamageModel;
+import ichttt.mods.firstaid.common.util.CommonUtils;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.inventory.EquipmentSlotType;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.DamageSource;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Collects all hits a player takes during a server tick and resolves them together at the end of the tick.
+ * The armor is captured when the hit is queued, so equipment swaps later in the tick do not change the outcome.
+ * All hits of a player share one snapshot and one {@link FirstAidLivingDamageEvent}, posted with the source of the first hit.
+ * Canceling it reverts all hits of the tick. The protection of the captured armor is cached per source category,
+ * so repeated hits of the same kind only do the enchantment lookup once.
+ */
+public class PendingDamageQueue {
+    private static Map<PlayerEntity, List<PendingHit>> pending = new WeakHashMap<>();
+
+    public static void queue(@Nonnull PlayerEntity player, @Nonnull IDamageDistribution distribution, float damage, @Nonnull DamageSource source, boolean addStat) {
+        ItemStack[] armor = new ItemStack[CommonUtils.ARMOR_SLOTS.length];
+        for (EquipmentSlotType slot : CommonUtils.ARMOR_SLOTS)
+            armor[slot.getIndex()] = player.getItemStackFromSlot(slot);
+        pending.computeIfAbsent(player, p -> new ArrayList<>(4)).add(new PendingHit(distribution, damage, source, addStat, armor));
+    }
+
+    public static void flush() {
+        if (pending.isEmpty())
+            return;
+        //Swap the map, so hits caused while resolving end up in the next tick
+        Map<PlayerEntity, List<PendingHit>> toResolve = pending;
+        pending = new WeakHashMap<>();
+        for (Map.Entry<PlayerEntity, List<PendingHit>> entry : toResolve.entrySet())
+            resolve(entry.getKey(), entry.getValue());
+    }
+
+    /**
+     * Resolves the hits of a single player right away, e.g. when logging out
+     */
+    public static void flush(PlayerEntity player) {
+        List<PendingHit> hits = pending.remove(player);
+        if (hits != null)
+            resolve(player, hits);
+    }
+
+    private static void resolve(PlayerEntity player, List<PendingHit> hits) {
+        if (!player.isAlive())
+            return;
+        AbstractPlayerDamageModel damageModel = CommonUtils.getDamageModel(player);
+        HitContext hitContext = damageModel instanceof PlayerDamageModel ? ((PlayerDamageModel) damageModel).getHitContext() : null;
+        DamageModelSnapshot beforeCache = CommonUtils.hasListeners(FirstAidLivingDamageEvent.class) ? DamageModelSnapshot.capture(damageModel) : null;
+        DamageSource lastSource = null;
+        float left = 0F;
+        for (PendingHit hit : hits) {
+            lastSource = hit.source;
+            if (hitContext != null)
+                hitContext.setArmor(hit.armor);
+            try {
+                left += DamageDistribution.applyDamage(hit.distribution, damageModel, hit.damage, player, hit.source, hit.addStat, true);
+            } finally {
+                if (hitContext != null)
+                    hitContext.setArmor(null);
+            }
+            if (damageModel.isDead(player))
+                break;
+        }
+        if (beforeCache != null && DamageDistribution.postDamageEvent(player, damageModel, beforeCache, hits.get(0).source, left))
+            return;
+
+        if (damageModel.isDead(player))
+            CommonUtils.killPlayer(player, lastSource);
+    }
+
+    public static void clear() {
+        pending.clear();
+    }
+
+    private static class PendingHit {
+        private final IDamageDistribution distribution;
+        private final float damage;
+        private final DamageSource source;
+        private final boolean addStat;
+        private final ItemStack[] armor;
+
+        private PendingHit(IDamageDistribution distribution, float damage, DamageSource source, boolean addStat, ItemStack[] armor) {
+            this.distribution = distribution;
+            this.damage = damage;
+            this.source = source;
+            this.addStat = addStat;
+            this.armor = armor;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * FirstAid
+ * Copyright (C) 2017-2019
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ichttt.mods.firstaid.common.damagesystem.distribution;
+
+import com.google.common.collect.ImmutableList;
+import ichttt.mods.firstaid.api.enums.EnumPlayerPart;
+import ichttt.mods.firstaid.common.util.CommonUtils;
+import net.minecraft.inventory.EquipmentSlotType;
+import org.apache.commons.lang3.tuple.Pair;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Precomputed orders of armor slots and parts, so a random order can be picked by index instead of shuffling a fresh list on every hit.
+ * All tables are immutable and shared, the part arrays inside must not be modified.
+ */
+public class PermutationTables {
+    private static final int MAX_PRECOMPUTED_LENGTH = 4;
+    private static final int[][][] INDEX_PERMUTATIONS = new int[MAX_PRECOMPUTED_LENGTH + 1][][];
+    private static final List<List<Pair<EquipmentSlotType, EnumPlayerPart[]>>> SLOT_ORDERS;
+    private static final List<List<Pair<EquipmentSlotType, EnumPlayerPart[]>>> NEAREST_SLOT_ORDERS;
+    private static final List<List<Pair<EquipmentSlotType, EnumPlayerPart[]>>> SINGLE_SLOTS;
+
+    static {
+        for (int length = 0; length <= MAX_PRECOMPUTED_LENGTH; length++)
+            INDEX_PERMUTATIONS[length] = buildPermutations(length);
+
+        List<Pair<EquipmentSlotType, EnumPlayerPart[]>> slotPairs = new ArrayList<>(CommonUtils.ARMOR_SLOTS.length);
+        ImmutableList.Builder<List<Pair<EquipmentSlotType, EnumPlayerPart[]>>> singleSlots = ImmutableList.builder();
+        for (EquipmentSlotType slot : CommonUtils.ARMOR_SLOTS) {
+            Pair<EquipmentSlotType, EnumPlayerPart[]> pair = Pair.of(slot, CommonUtils.slotToParts.get(slot).toArray(new EnumPlayerPart[0]));
+            slotPairs.add(pair);
+            singleSlots.add(ImmutableList.of(pair));
+        }
+        SINGLE_SLOTS = singleSlots.build();
+
+        SLOT_ORDERS = buildOrders(slotPairs);
+
+        ImmutableList.Builder<List<Pair<EquipmentSlotType, EnumPlayerPart[]>>> nearestSlotOrders = ImmutableList.builder();
+        for (int startValue = 0; startValue < 4; startValue++) {
+            for (int up = 0; up < 2; up++) {
+                ImmutableList.Builder<Pair<EquipmentSlotType, EnumPlayerPart[]>> order = ImmutableList.builder();
+                for (int i = 0; i < CommonUtils.ARMOR_SLOTS.length; i++) {
+                    int posInArray = Math.abs(i - (up == 1 ? 0 : 3)) + startValue;
+                    if (posInArray > 3)
+                        posInArray -= 4;
+                    order.add(slotPairs.get(posInArray));
+                }
+                nearestSlotOrders.add(order.build());
+            }
+        }
+        NEAREST_SLOT_ORDERS = nearestSlotOrders.build();
+    }
+
+    /**
+     * @return all armor slots in a random order
+     */
+    @Nonnull
+    public static List<Pair<EquipmentSlotType, EnumPlayerPart[]>> randomSlotOrder(Random random) {
+        return SLOT_ORDERS.get(random.nextInt(SLOT_ORDERS.size()));
+    }
+
+    /**
+     * @return all armor slots, starting at the slot with the given index and continuing with the slots next to it
+     */
+    @Nonnull
+    public static List<Pair<EquipmentSlotType, EnumPlayerPart[]>> nearestSlotOrder(int startValue, boolean up) {
+        return NEAREST_SLOT_ORDERS.get(startValue * 2 + (up ? 1 : 0));
+    }
+
+    @Nonnull
+    public static List<Pair<EquipmentSlotType, EnumPlayerPart[]>> singleSlot(EquipmentSlotType slot) {
+        return SINGLE_SLOTS.get(slot.getIndex());
+    }
+
+    /**
+     * @return a random order of the indices 0 to length - 1. Only allocates for lengths above {@link #MAX_PRECOMPUTED_LENGTH}
+     */
+    @Nonnull
+    public static int[] randomIndexOrder(int length, Random random) {
+        if (length <= MAX_PRECOMPUTED_LENGTH) {
+            int[][] permutations = INDEX_PERMUTATIONS[length];
+            return permutations[random.nextInt(permutations.length)];
+        }
+        int[] order = new int[length];
+        for (int i = 0; i < length; i++) {
+            int j = random.nextInt(i + 1);
+            order[i] = order[j];
+            order[j] = i;
+        }
+        return order;
+    }
+
+    /**
+     * @return every order of the given elements as immutable lists, or null if there are more than {@link #MAX_PRECOMPUTED_LENGTH} elements
+     */
+    @Nullable
+    public static <T> List<List<T>> buildOrders(List<T> elements) {
+        if (elements.size() > MAX_PRECOMPUTED_LENGTH)
+            return null;
+        ImmutableList.Builder<List<T>> orders = ImmutableList.builder();
+        for (int[] permutation : INDEX_PERMUTATIONS[elements.size()]) {
+            ImmutableList.Builder<T> order = ImmutableList.builder();
+            for (int index : permutation)
+                order.add(elements.get(index));
+            orders.add(order.build());
+        }
+        return orders.build();
+    }
+
+    private static int[][] buildPermutations(int length) {
+        List<int[]> permutations = new ArrayList<>();
+        permute(new int[length], new boolean[length], 0, permutations);
+        return permutations.toArray(new int[0][]);
+    }
+
+    private static void permute(int[] current, boolean[] used, int position, List<int[]> permutations) {
+        if (position == current.length) {
+            permutations.add(current.clone());
+            return;
+        }
+        for (int i = 0; i < current.length; i++) {
+            if (used[i])
+                continue;
+            used[i] = true;
+            current[position] = i;
+            permute(current, used, position + 1, permutations);
+            used[i] = false;
+        }
+    }
+}
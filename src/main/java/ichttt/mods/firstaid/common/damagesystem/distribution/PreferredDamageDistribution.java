@@ -20,11 +20,11 @@ package ichttt.mods.firstaid.common.damagesystem.distribution;
 
 import ichttt.mods.firstaid.api.enums.EnumPlayerPart;
 import ichttt.mods.firstaid.common.util.CommonUtils;
+import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.inventory.EquipmentSlotType;
 import org.apache.commons.lang3.tuple.Pair;
 
 import javax.annotation.Nonnull;
-import java.util.Collections;
 import java.util.List;
 
 public class PreferredDamageDistribution extends DamageDistribution {
@@ -42,11 +42,7 @@ public class PreferredDamageDistribution extends DamageDistribution {
 
     @Nonnull
     @Override
-    protected List<Pair<EquipmentSlotType, EnumPlayerPart[]>> getPartList() {
-        int posInArray = slot.getIndex();
-        EquipmentSlotType slot = CommonUtils.ARMOR_SLOTS[posInArray];
-        List<EnumPlayerPart> parts = CommonUtils.slotToParts.get(slot);
-        Collections.shuffle(parts);
-        return Collections.singletonList(Pair.of(slot, parts.toArray(new EnumPlayerPart[0])));
+    protected List<Pair<EquipmentSlotType, EnumPlayerPart[]>> getPartList(@Nonnull PlayerEntity player) {
+        return PermutationTables.singleSlot(slot);
     }
 }
@@ -20,15 +20,12 @@ package ichttt.mods.firstaid.common.damagesystem.distribution;
 
 import ichttt.mods.firstaid.api.damagesystem.AbstractDamageablePart;
 import ichttt.mods.firstaid.api.enums.EnumPlayerPart;
-import ichttt.mods.firstaid.common.util.CommonUtils;
+import ichttt.mods.firstaid.common.util.RandomService;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.inventory.EquipmentSlotType;
 import org.apache.commons.lang3.tuple.Pair;
 
 import javax.annotation.Nonnull;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 
@@ -38,7 +35,6 @@ public class RandomDamageDistribution extends DamageDistribution {
     public static final RandomDamageDistribution ANY_NOKILL = new RandomDamageDistribution(false, true);
     public static final RandomDamageDistribution ANY_KILL = new RandomDamageDistribution(false, false);
 
-    private static final Random RANDOM = new Random();
     private final boolean nearestFirst;
     private final boolean tryNoKill;
 
@@ -56,36 +52,20 @@ public class RandomDamageDistribution extends DamageDistribution {
 
     @Override
     @Nonnull
-    protected List<Pair<EquipmentSlotType, EnumPlayerPart[]>> getPartList() {
+    protected List<Pair<EquipmentSlotType, EnumPlayerPart[]>> getPartList(@Nonnull PlayerEntity player) {
+        Random random = RandomService.get(player);
         if (nearestFirst) {
-            int startValue = RANDOM.nextInt(4);
-            return addAllRandom(startValue, RANDOM.nextBoolean());
+            int startValue = random.nextInt(4);
+            return addAllRandom(startValue, random.nextBoolean());
         } else {
-            List<Pair<EquipmentSlotType, EnumPlayerPart[]>> partList = new ArrayList<>();
-            List<EquipmentSlotType> slots = Arrays.asList(EquipmentSlotType.values());
-            Collections.shuffle(slots, RANDOM);
-            for (EquipmentSlotType slot : slots) {
-                if (!CommonUtils.isValidArmorSlot(slot))
-                    continue;
-                List<EnumPlayerPart> parts = CommonUtils.slotToParts.get(slot);
-                Collections.shuffle(parts);
-                partList.add(Pair.of(slot, parts.toArray(new EnumPlayerPart[0])));
-            }
-            return partList;
+            return PermutationTables.randomSlotOrder(random);
         }
     }
 
+    /**
+     * Parts within a slot are put into a random order by {@link #distributeDamageOnParts}
+     */
     public static List<Pair<EquipmentSlotType, EnumPlayerPart[]>> addAllRandom(int startValue, boolean up) {
-        List<Pair<EquipmentSlotType, EnumPlayerPart[]>> partList = new ArrayList<>();
-        for (int i = 0; i < CommonUtils.ARMOR_SLOTS.length; i ++) {
-            int posInArray = Math.abs(i - (up ? 0 : 3)) + startValue;
-            if (posInArray > 3)
-                posInArray -= 4;
-            EquipmentSlotType slot = CommonUtils.ARMOR_SLOTS[posInArray];
-            List<EnumPlayerPart> parts = CommonUtils.slotToParts.get(slot);
-            Collections.shuffle(parts);
-            partList.add(Pair.of(slot, parts.toArray(new EnumPlayerPart[0])));
-        }
-        return partList;
+        return PermutationTables.nearestSlotOrder(startValue, up);
     }
 }
@@ -18,25 +18,33 @@
 
 package ichttt.mods.firstaid.common.damagesystem.distribution;
 
+import com.google.common.collect.ImmutableList;
 import ichttt.mods.firstaid.api.enums.EnumPlayerPart;
+import ichttt.mods.firstaid.common.util.PartSet;
+import ichttt.mods.firstaid.common.util.RandomService;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.inventory.EquipmentSlotType;
 import net.minecraft.util.DamageSource;
 import org.apache.commons.lang3.tuple.Pair;
 
 import javax.annotation.Nonnull;
-import java.util.Arrays;
-import java.util.Collections;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Random;
 
 public class StandardDamageDistribution extends DamageDistribution {
+    private static final PreferredDamageDistribution[] NO_FALLBACK = new PreferredDamageDistribution[0];
     private final List<Pair<EquipmentSlotType, EnumPlayerPart[]>> partList;
+    private final PreferredDamageDistribution[] fallback;
     private final boolean shuffle;
+    @Nullable
+    private final List<List<Pair<EquipmentSlotType, EnumPlayerPart[]>>> shuffledOrders;
+    @Nullable
+    private final PreferredDamageDistribution[][] shuffledFallbacks;
 
     public StandardDamageDistribution(List<Pair<EquipmentSlotType, EnumPlayerPart[]>> partList, boolean shuffle) {
-        this.partList = partList;
+        this.partList = ImmutableList.copyOf(partList);
         for (Pair<EquipmentSlotType, EnumPlayerPart[]> pair : partList) {
             for (EnumPlayerPart part : pair.getRight()) {
                 if (part.slot != pair.getLeft())
@@ -44,28 +52,79 @@ public class StandardDamageDistribution extends DamageDistribution {
             }
         }
         this.shuffle = shuffle;
+        this.fallback = buildFallback(this.partList);
+        this.shuffledOrders = shuffle ? PermutationTables.buildOrders(this.partList) : null;
+        if (this.shuffledOrders != null) {
+            this.shuffledFallbacks = new PreferredDamageDistribution[this.shuffledOrders.size()][];
+            for (int i = 0; i < this.shuffledFallbacks.length; i++)
+                this.shuffledFallbacks[i] = buildFallback(this.shuffledOrders.get(i));
+        } else {
+            this.shuffledFallbacks = null;
+        }
+    }
+
+    /**
+     * Resolves where damage that is left after all slots goes: the neighbours of the first part of the last slot that are not covered by any slot
+     */
+    private static PreferredDamageDistribution[] buildFallback(List<Pair<EquipmentSlotType, EnumPlayerPart[]>> partList) {
+        if (partList.isEmpty())
+            return NO_FALLBACK;
+        int covered = PartSet.EMPTY;
+        for (Pair<EquipmentSlotType, EnumPlayerPart[]> pair : partList)
+            covered |= PartSet.of(pair.getRight());
+        for (EnumPlayerPart part : partList.get(partList.size() - 1).getRight()) {
+            if (part.getNeighbourMask() == PartSet.EMPTY)
+                continue;
+            List<PreferredDamageDistribution> fallback = new ArrayList<>();
+            for (EnumPlayerPart neighbour : part.getNeighbours()) {
+                if (!PartSet.contains(covered, neighbour))
+                    fallback.add(new PreferredDamageDistribution(neighbour));
+            }
+            return fallback.toArray(NO_FALLBACK);
+        }
+        return NO_FALLBACK;
+    }
+
+    private int pickOrder(Random random) {
+        return random.nextInt(this.shuffledOrders.size());
     }
 
     @Override
     @Nonnull
-    protected List<Pair<EquipmentSlotType, EnumPlayerPart[]>> getPartList() {
-        if (this.shuffle) Collections.shuffle(this.partList);
-        return this.partList;
+    protected List<Pair<EquipmentSlotType, EnumPlayerPart[]>> getPartList(@Nonnull PlayerEntity player) {
+        if (!this.shuffle)
+            return this.partList;
+        Random random = RandomService.get(player);
+        if (this.shuffledOrders != null)
+            return this.shuffledOrders.get(pickOrder(random));
+        return shuffleSlow(random);
+    }
+
+    private List<Pair<EquipmentSlotType, EnumPlayerPart[]>> shuffleSlow(Random random) {
+        List<Pair<EquipmentSlotType, EnumPlayerPart[]>> shuffled = new ArrayList<>(this.partList.size());
+        for (int index : PermutationTables.randomIndexOrder(this.partList.size(), random))
+            shuffled.add(this.partList.get(index));
+        return shuffled;
     }
 
     @Override
     public float distributeDamage(float damage, @Nonnull PlayerEntity player, @Nonnull DamageSource source, boolean addStat) {
-        float rest = super.distributeDamage(damage, player, source, addStat);
-        if (rest > 0) {
-            EnumPlayerPart[] parts = partList.get(partList.size() - 1).getRight();
-            Optional<EnumPlayerPart> playerPart = Arrays.stream(parts).filter(enumPlayerPart -> !enumPlayerPart.getNeighbours().isEmpty()).findAny();
-            if (playerPart.isPresent()) {
-                List<EnumPlayerPart> neighbours = playerPart.get().getNeighbours();
-                neighbours = neighbours.stream().filter(part -> partList.stream().noneMatch(pair -> Arrays.stream(pair.getRight()).anyMatch(p2 -> p2 == part))).collect(Collectors.toList());
-                for (EnumPlayerPart part : neighbours)
-                    rest = new PreferredDamageDistribution(part).distributeDamage(rest, player, source, addStat);
-            }
+        List<Pair<EquipmentSlotType, EnumPlayerPart[]>> partList;
+        PreferredDamageDistribution[] fallback;
+        if (!this.shuffle) {
+            partList = this.partList;
+            fallback = this.fallback;
+        } else if (this.shuffledOrders != null) {
+            int order = pickOrder(RandomService.get(player));
+            partList = this.shuffledOrders.get(order);
+            fallback = this.shuffledFallbacks[order];
+        } else {
+            partList = shuffleSlow(RandomService.get(player));
+            fallback = buildFallback(partList);
         }
+        float rest = distributeDamageOnSlots(damage, player, source, addStat, partList);
+        for (int i = 0; i < fallback.length && rest > 0; i++)
+            rest = fallback[i].distributeDamage(rest, player, source, addStat);
         return rest;
     }
 }
@@ -0,0 +1,104 @@
+/*
+ * FirstAid
+ * Copyright (C) 2017-2019
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ichttt.mods.firstaid.common.network;
+
+import ichttt.mods.firstaid.FirstAid;
+import ichttt.mods.firstaid.FirstAidConfig;
+import net.minecraft.entity.player.ServerPlayerEntity;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Per-player token bucket for requests sent by clients.
+ * Requests are checked on the network thread before any work is queued, so all access is synchronized.
+ */
+public class ClientRequestLimiter {
+    private static final Map<ServerPlayerEntity, Bucket> BUCKETS = new WeakHashMap<>();
+    private static int rejected = 0;
+    private static int servedFromCache = 0;
+    private static int ticksSinceReport = 0;
+
+    /**
+     * @return true if the request may be processed, false if it should be dropped
+     */
+    public static synchronized boolean tryAcquire(ServerPlayerEntity player) {
+        int tick = player.server.getTickCounter();
+        Bucket bucket = BUCKETS.computeIfAbsent(player, p -> new Bucket(FirstAidConfig.GENERAL.clientRequestBurst.get(), tick));
+        if (bucket.tryTake(tick, FirstAidConfig.GENERAL.clientRequestBurst.get(), FirstAidConfig.GENERAL.clientRequestRefillTicks.get()))
+            return true;
+        if (rejected == 0 && FirstAidConfig.GENERAL.debug.get())
+            FirstAid.LOGGER.info("Dropping client requests from {}", player.getName().getString());
+        rejected++;
+        return false;
+    }
+
+    public static synchronized void onServedFromCache() {
+        servedFromCache++;
+    }
+
+    /**
+     * Called at the end of every server tick
+     */
+    public static synchronized void tick() {
+        int interval = FirstAidConfig.GENERAL.statsInterval.get() * 20;
+        if (interval == 0 || ++ticksSinceReport < interval)
+            return;
+        ticksSinceReport = 0;
+        if (rejected > 0 || servedFromCache > 0)
+            FirstAid.LOGGER.info("Client requests in the last {} seconds: {} rejected, {} full syncs served from cache", interval / 20, rejected, servedFromCache);
+        rejected = 0;
+        servedFromCache = 0;
+    }
+
+    public static synchronized void remove(ServerPlayerEntity player) {
+        BUCKETS.remove(player);
+    }
+
+    public static synchronized void clear() {
+        BUCKETS.clear();
+        rejected = 0;
+        servedFromCache = 0;
+        ticksSinceReport = 0;
+    }
+
+    private static class Bucket {
+        private int tokens;
+        private int lastRefill;
+
+        private Bucket(int tokens, int lastRefill) {
+            this.tokens = tokens;
+            this.lastRefill = lastRefill;
+        }
+
+        private boolean tryTake(int tick, int capacity, int refillTicks) {
+            int refill = (tick - lastRefill) / refillTicks;
+            if (refill > 0) {
+                tokens = Math.min(capacity, tokens + refill);
+                lastRefill += refill * refillTicks;
+            }
+            if (tokens >= capacity)
+                lastRefill = tick; //full buckets do not save up refills
+            if (tokens <= 0)
+                return false;
+            tokens--;
+            return true;
+        }
+    }
+}
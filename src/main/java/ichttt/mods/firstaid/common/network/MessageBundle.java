@@ -0,0 +1,69 @@
+/*
+ * FirstAid
+ * Copyright (C) 2017-2019
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package ichttt.mods.firstaid.common.network;
+
+import ichttt.mods.firstaid.common.util.CommonUtils;
+import net.minecraft.network.PacketBuffer;
+import net.minecraftforge.fml.network.NetworkEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * A frame containing multiple messages, see {@link PacketBundler}
+ */
+public class MessageBundle {
+    private final PacketBuffer payload;
+    private final List<Object> messages;
+
+    public MessageBundle(PacketBuffer buffer) {
+        this(null, new ArrayList<>());
+        PacketBuffer payload = new PacketBuffer(buffer.readSlice(buffer.readVarInt()));
+        while (payload.isReadable())
+            this.messages.add(PacketBundler.decode(payload));
+    }
+
+    private MessageBundle(PacketBuffer payload, List<Object> messages) {
+        this.payload = payload;
+        this.messages = messages;
+    }
+
+    static MessageBundle of(PacketBuffer payload) {
+        return new MessageBundle(payload, null);
+    }
+
+    public void encode(PacketBuffer buf) {
+        buf.writeVarInt(payload.readableBytes());
+        buf.writeBytes(payload, payload.readerIndex(), payload.readableBytes());
+    }
+
+    public static class Handler {
+
+        public static void onMessage(MessageBundle message, Supplier<NetworkEvent.Context> supplier) {
+            NetworkEvent.Context ctx = supplier.get();
+            CommonUtils.checkClient(ctx);
+            ctx.enqueueWork(() -> {
+                for (Object bundled : message.messages)
+                    PacketBundler.handle(bundled);
+            });
+        }
+    }
+}
@@ -18,12 +18,11 @@
 
 package ichttt.mods.firstaid.common.network;
 
-import ichttt.mods.firstaid.FirstAid;
 import ichttt.mods.firstaid.common.CapProvider;
+import ichttt.mods.firstaid.common.damagesystem.PlayerDamageModel;
 import ichttt.mods.firstaid.common.util.CommonUtils;
 import net.minecraft.entity.player.ServerPlayerEntity;
 import net.minecraft.network.PacketBuffer;
-import net.minecraftforge.fml.network.NetworkDirection;
 import net.minecraftforge.fml.network.NetworkEvent;
 
 import java.util.function.Supplier;
@@ -54,12 +53,16 @@ public class MessageClientRequest {
         public static void onMessage(MessageClientRequest message, Supplier<NetworkEvent.Context> supplier) {
             NetworkEvent.Context ctx = supplier.get();
             ServerPlayerEntity player = CommonUtils.checkServer(ctx);
-            if (message.type == Type.TUTORIAL_COMPLETE) {
-                CapProvider.tutorialDone.add(player.getName().getString());
-                ctx.enqueueWork(() -> CommonUtils.getDamageModel(player).hasTutorial = true);
-            } else if (message.type == Type.REQUEST_REFRESH) {
-                ctx.enqueueWork(() -> FirstAid.NETWORKING.sendTo(new MessageSyncDamageModel(CommonUtils.getDamageModel(player)), player.connection.getNetworkManager(), NetworkDirection.PLAY_TO_CLIENT));
-            }
+            if (!ClientRequestLimiter.tryAcquire(player))
+                return; //rejected before queueing, so spam does not reach the server thread
+            ctx.enqueueWork(() -> {
+                if (message.type == Type.TUTORIAL_COMPLETE) {
+                    CapProvider.tutorialDone.add(player.getName().getString());
+                    CommonUtils.getDamageModel(player).hasTutorial = true;
+                } else if (message.type == Type.REQUEST_REFRESH) {
+                    ((PlayerDamageModel) CommonUtils.getDamageModel(player)).sendFullSync(player);
+                }
+            });
         }
     }
 }
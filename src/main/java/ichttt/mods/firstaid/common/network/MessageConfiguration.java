@@ -23,10 +23,11 @@ import ichttt.mods.firstaid.api.damagesystem.AbstractPlayerDamageModel;
 import ichttt.mods.firstaid.client.ClientHooks;
 import ichttt.mods.firstaid.client.HUDHandler;
 import ichttt.mods.firstaid.common.CapProvider;
+import ichttt.mods.firstaid.common.damagesystem.DamageModelSnapshot;
+import ichttt.mods.firstaid.common.damagesystem.PlayerDamageModel;
 import ichttt.mods.firstaid.common.util.CommonUtils;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.resources.I18n;
-import net.minecraft.nbt.CompoundNBT;
 import net.minecraft.network.PacketBuffer;
 import net.minecraft.util.text.StringTextComponent;
 import net.minecraftforge.fml.network.NetworkEvent;
@@ -35,18 +36,22 @@ import java.util.function.Supplier;
 
 public class MessageConfiguration {
 
-    private final CompoundNBT playerDamageModel;
+    private final DamageModelSnapshot playerDamageModel;
+    private final int sequence;
 
-    public MessageConfiguration(CompoundNBT model) {
-        this.playerDamageModel = model;
+    public MessageConfiguration(AbstractPlayerDamageModel model, int sequence) {
+        this.playerDamageModel = DamageModelSnapshot.capture(model);
+        this.sequence = sequence;
     }
 
     public MessageConfiguration(PacketBuffer buffer) {
-        this(buffer.readCompoundTag());
+        this.playerDamageModel = DamageModelSnapshot.read(buffer);
+        this.sequence = buffer.readVarInt();
     }
 
     public void encode(PacketBuffer buf) {
-        buf.writeCompoundTag(playerDamageModel);
+        playerDamageModel.write(buf);
+        buf.writeVarInt(sequence);
     }
 
     public static class Handler {
@@ -55,17 +60,20 @@ public class MessageConfiguration {
             NetworkEvent.Context ctx = supplier.get();
             CommonUtils.checkClient(ctx);
 
+            ctx.enqueueWork(() -> handle(message));
+        }
+
+        public static void handle(MessageConfiguration message) {
             FirstAid.LOGGER.info("Received remote damage model");
-            ctx.enqueueWork(() -> {
-                AbstractPlayerDamageModel damageModel = CommonUtils.getDamageModel(Minecraft.getInstance().player);
-                damageModel.deserializeNBT(message.playerDamageModel);
-                if (damageModel.hasTutorial)
-                    CapProvider.tutorialDone.add(Minecraft.getInstance().player.getName().getString());
-                else
-                    Minecraft.getInstance().player.sendMessage(new StringTextComponent("[First Aid] " + I18n.format("firstaid.tutorial.hint", ClientHooks.showWounds.getLocalizedName())));
-                HUDHandler.INSTANCE.ticker = 200;
-                FirstAid.isSynced = true;
-            });
+            AbstractPlayerDamageModel damageModel = CommonUtils.getDamageModel(Minecraft.getInstance().player);
+            message.playerDamageModel.copyTo(damageModel);
+            ((PlayerDamageModel) damageModel).setSyncSequence(message.sequence);
+            if (damageModel.hasTutorial)
+                CapProvider.tutorialDone.add(Minecraft.getInstance().player.getName().getString());
+            else
+                Minecraft.getInstance().player.sendMessage(new StringTextComponent("[First Aid] " + I18n.format("firstaid.tutorial.hint", ClientHooks.showWounds.getLocalizedName())));
+            HUDHandler.INSTANCE.ticker = 200;
+            FirstAid.isSynced = true;
         }
     }
 }
@@ -50,7 +50,11 @@ public class MessagePlayHurtSound {
         public static void onMessage(MessagePlayHurtSound message, Supplier<NetworkEvent.Context> supplier) {
             NetworkEvent.Context ctx = supplier.get();
             CommonUtils.checkClient(ctx);
-            ctx.enqueueWork(() -> DebuffTimedSound.playHurtSound(message.sound, message.duration));
+            ctx.enqueueWork(() -> handle(message));
+        }
+
+        public static void handle(MessagePlayHurtSound message) {
+            DebuffTimedSound.playHurtSound(message.sound, message.duration);
         }
     }
 }
@@ -19,47 +19,41 @@
 package ichttt.mods.firstaid.common.network;
 
 import ichttt.mods.firstaid.api.damagesystem.AbstractPlayerDamageModel;
-import ichttt.mods.firstaid.api.enums.EnumPlayerPart;
+import ichttt.mods.firstaid.common.damagesystem.PlayerDamageModel;
 import ichttt.mods.firstaid.common.util.CommonUtils;
-import net.minecraft.client.Minecraft;
-import net.minecraft.client.entity.player.ClientPlayerEntity;
+import net.minecraft.entity.player.ServerPlayerEntity;
 import net.minecraft.network.PacketBuffer;
 import net.minecraftforge.fml.network.NetworkEvent;
 
 import java.util.function.Supplier;
 
-public class MessageAddHealth {
-    private final float[] table;
+public class MessageReportState {
+    private final int sequence;
+    private final int checksum;
 
-    public MessageAddHealth(PacketBuffer buffer) {
-        this.table = new float[8];
-        for (int i = 0; i < 8; i++) {
-            this.table[i] = buffer.readFloat();
-        }
+    public MessageReportState(PacketBuffer buffer) {
+        this(buffer.readVarInt(), buffer.readInt());
     }
 
-    public MessageAddHealth(float[] table) {
-        this.table = table;
+    public MessageReportState(int sequence, int checksum) {
+        this.sequence = sequence;
+        this.checksum = checksum;
     }
 
     public void encode(PacketBuffer buf) {
-        for (float f : table)
-            buf.writeFloat(f);
+        buf.writeVarInt(sequence);
+        buf.writeInt(checksum);
     }
 
     public static class Handler {
 
-        public static void onMessage(MessageAddHealth message, Supplier<NetworkEvent.Context> supplier) {
+        public static void onMessage(MessageReportState message, Supplier<NetworkEvent.Context> supplier) {
             NetworkEvent.Context ctx = supplier.get();
-            CommonUtils.checkClient(ctx);
+            ServerPlayerEntity player = CommonUtils.checkServer(ctx);
             ctx.enqueueWork(() -> {
-                ClientPlayerEntity playerSP = Minecraft.getInstance().player;
-                AbstractPlayerDamageModel damageModel = CommonUtils.getDamageModel(playerSP);
-                for (int i = 0; i < message.table.length; i++) {
-                    float f = message.table[i];
-                    EnumPlayerPart part = EnumPlayerPart.VALUES[i];
-                    damageModel.getFromEnum(part).heal(f, playerSP, false);
-                }
+                AbstractPlayerDamageModel damageModel = CommonUtils.getDamageModel(player);
+                if (damageModel instanceof PlayerDamageModel)
+                    ((PlayerDamageModel) damageModel).verifyClientState(player, message.sequence, message.checksum);
             });
         }
     }
@@ -18,6 +18,8 @@
 
 package ichttt.mods.firstaid.common.network;
 
+import ichttt.mods.firstaid.FirstAid;
+import ichttt.mods.firstaid.common.damagesystem.PlayerDamageModel;
 import ichttt.mods.firstaid.common.util.CommonUtils;
 import net.minecraft.client.Minecraft;
 import net.minecraft.network.PacketBuffer;
@@ -25,27 +27,29 @@ import net.minecraftforge.fml.network.NetworkEvent;
 
 import java.util.function.Supplier;
 
-public class MessageApplyAbsorption {
-    private final float amount;
+/**
+ * Asks the client to report the sequence and checksum of its damage model.
+ * The server only sends the full state if the report does not match.
+ */
+public class MessageStateCheck {
 
-    public MessageApplyAbsorption(PacketBuffer buffer) {
-        amount = buffer.readFloat();
-    }
+    public MessageStateCheck(PacketBuffer buffer) {}
 
-    public MessageApplyAbsorption(float amount) {
-        this.amount = amount;
-    }
+    public MessageStateCheck() {}
 
-    public void encode(PacketBuffer buf) {
-        buf.writeFloat(amount);
-    }
+    public void encode(PacketBuffer buf) {}
 
     public static class Handler {
 
-        public static void onMessage(MessageApplyAbsorption message, Supplier<NetworkEvent.Context> supplier) {
+        public static void onMessage(MessageStateCheck message, Supplier<NetworkEvent.Context> supplier) {
             NetworkEvent.Context ctx = supplier.get();
             CommonUtils.checkClient(ctx);
-            ctx.enqueueWork(() -> CommonUtils.getDamageModel(Minecraft.getInstance().player).setAbsorption(message.amount));
+            ctx.enqueueWork(() -> handle(message));
+        }
+
+        public static void handle(MessageStateCheck message) {
+            PlayerDamageModel damageModel = (PlayerDamageModel) CommonUtils.getDamageModel(Minecraft.getInstance().player);
+            FirstAid.NETWORKING.sendToServer(new MessageReportState(damageModel.getSyncSequence(), damageModel.getClientChecksum()));
         }
     }
 }
@@ -19,27 +19,32 @@
 package ichttt.mods.firstaid.common.network;
 
 import ichttt.mods.firstaid.api.damagesystem.AbstractPlayerDamageModel;
+import ichttt.mods.firstaid.common.damagesystem.DamageModelSnapshot;
+import ichttt.mods.firstaid.common.damagesystem.PlayerDamageModel;
 import ichttt.mods.firstaid.common.util.CommonUtils;
 import net.minecraft.client.Minecraft;
-import net.minecraft.nbt.CompoundNBT;
 import net.minecraft.network.PacketBuffer;
 import net.minecraftforge.fml.network.NetworkEvent;
 
 import java.util.function.Supplier;
 
 public class MessageSyncDamageModel {
-    private final CompoundNBT playerDamageModel;
+    private final DamageModelSnapshot playerDamageModel;
+    private final int sequence;
 
     public MessageSyncDamageModel(PacketBuffer buffer) {
-        this.playerDamageModel = buffer.readCompoundTag();
+        this.playerDamageModel = DamageModelSnapshot.read(buffer);
+        this.sequence = buffer.readVarInt();
     }
 
-    public MessageSyncDamageModel(AbstractPlayerDamageModel damageModel) {
-        this.playerDamageModel = damageModel.serializeNBT();
+    public MessageSyncDamageModel(DamageModelSnapshot snapshot, int sequence) {
+        this.playerDamageModel = snapshot;
+        this.sequence = sequence;
     }
 
     public void encode(PacketBuffer buffer) {
-        buffer.writeCompoundTag(this.playerDamageModel);
+        this.playerDamageModel.write(buffer);
+        buffer.writeVarInt(this.sequence);
     }
 
     public static final class Handler {
@@ -47,7 +52,13 @@ public class MessageSyncDamageModel {
         public static void onMessage(MessageSyncDamageModel message, Supplier<NetworkEvent.Context> supplier) {
             NetworkEvent.Context ctx = supplier.get();
             CommonUtils.checkClient(ctx);
-            ctx.enqueueWork(() -> CommonUtils.getDamageModel(Minecraft.getInstance().player).deserializeNBT(message.playerDamageModel));
+            ctx.enqueueWork(() -> handle(message));
+        }
+
+        public static void handle(MessageSyncDamageModel message) {
+            AbstractPlayerDamageModel damageModel = CommonUtils.getDamageModel(Minecraft.getInstance().player);
+            message.playerDamageModel.copyTo(damageModel);
+            ((PlayerDamageModel) damageModel).setSyncSequence(message.sequence);
         }
     }
 }
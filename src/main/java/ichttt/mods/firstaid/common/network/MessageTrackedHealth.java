@@ -0,0 +1,66 @@
+/*
+ * FirstAid
+ * Copyright (C) 2017-2019
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ichttt.mods.firstaid.common.network;
+
+import ichttt.mods.firstaid.client.RemoteDamageModel;
+import ichttt.mods.firstaid.common.util.CommonUtils;
+import net.minecraft.network.PacketBuffer;
+import net.minecraftforge.fml.network.NetworkEvent;
+
+import java.util.function.Supplier;
+
+/**
+ * Overall health of another player, sent to everyone that tracks that player
+ */
+public class MessageTrackedHealth {
+    private final int entityId;
+    private final int healthFraction;
+
+    public MessageTrackedHealth(PacketBuffer buffer) {
+        this(buffer.readVarInt(), buffer.readUnsignedByte());
+    }
+
+    /**
+     * @param healthFraction the overall health between 0 and 255
+     */
+    public MessageTrackedHealth(int entityId, int healthFraction) {
+        this.entityId = entityId;
+        this.healthFraction = healthFraction;
+    }
+
+    public void encode(PacketBuffer buf) {
+        buf.writeVarInt(entityId);
+        buf.writeByte(healthFraction);
+    }
+
+    public static class Handler {
+
+        public static void onMessage(MessageTrackedHealth message, Supplier<NetworkEvent.Context> supplier) {
+            NetworkEvent.Context ctx = supplier.get();
+            CommonUtils.checkClient(ctx);
+            ctx.enqueueWork(() -> handle(message));
+        }
+
+        public static void handle(MessageTrackedHealth message) {
+            RemoteDamageModel model = RemoteDamageModel.get(message.entityId);
+            if (model != null)
+                model.setHealthFraction(message.healthFraction / 255F);
+        }
+    }
+}
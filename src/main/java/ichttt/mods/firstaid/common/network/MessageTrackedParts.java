@@ -0,0 +1,99 @@
+/*
+ * FirstAid
+ * Copyright (C) 2017-2019
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ichttt.mods.firstaid.common.network;
+
+import ichttt.mods.firstaid.api.damagesystem.AbstractDamageablePart;
+import ichttt.mods.firstaid.api.damagesystem.AbstractPlayerDamageModel;
+import ichttt.mods.firstaid.api.enums.EnumPlayerPart;
+import ichttt.mods.firstaid.client.RemoteDamageModel;
+import ichttt.mods.firstaid.common.damagesystem.DamageModelSnapshot;
+import ichttt.mods.firstaid.common.util.CommonUtils;
+import net.minecraft.network.PacketBuffer;
+import net.minecraftforge.fml.network.NetworkEvent;
+
+import javax.annotation.Nullable;
+import java.util.function.Supplier;
+
+/**
+ * Health of every part of another player, sent to nearby teammates.
+ * Without parts, it tells the client to drop the part values it has.
+ */
+public class MessageTrackedParts {
+    private final int entityId;
+    private final boolean hasParts;
+    private final float[] health = new float[8];
+    private final float[] absorption = new float[8];
+    private final int[] maxHealth = new int[8];
+
+    public MessageTrackedParts(PacketBuffer buffer) {
+        this.entityId = buffer.readVarInt();
+        this.hasParts = buffer.readBoolean();
+        if (hasParts) {
+            for (int i = 0; i < 8; i++) {
+                this.health[i] = buffer.readShort() / DamageModelSnapshot.FIXED_POINT_SCALE;
+                this.absorption[i] = buffer.readShort() / DamageModelSnapshot.FIXED_POINT_SCALE;
+                this.maxHealth[i] = buffer.readUnsignedByte();
+            }
+        }
+    }
+
+    public MessageTrackedParts(int entityId, @Nullable AbstractPlayerDamageModel damageModel) {
+        this.entityId = entityId;
+        this.hasParts = damageModel != null;
+        if (damageModel != null) {
+            for (int i = 0; i < 8; i++) {
+                AbstractDamageablePart part = damageModel.getFromEnum(EnumPlayerPart.VALUES[i]);
+                this.health[i] = part.getCurrentHealth();
+                this.absorption[i] = part.getAbsorption();
+                this.maxHealth[i] = part.getMaxHealth();
+            }
+        }
+    }
+
+    public void encode(PacketBuffer buf) {
+        buf.writeVarInt(entityId);
+        buf.writeBoolean(hasParts);
+        if (hasParts) {
+            for (int i = 0; i < 8; i++) {
+                buf.writeShort(Math.round(health[i] * DamageModelSnapshot.FIXED_POINT_SCALE));
+                buf.writeShort(Math.round(absorption[i] * DamageModelSnapshot.FIXED_POINT_SCALE));
+                buf.writeByte(maxHealth[i]);
+            }
+        }
+    }
+
+    public static class Handler {
+
+        public static void onMessage(MessageTrackedParts message, Supplier<NetworkEvent.Context> supplier) {
+            NetworkEvent.Context ctx = supplier.get();
+            CommonUtils.checkClient(ctx);
+            ctx.enqueueWork(() -> handle(message));
+        }
+
+        public static void handle(MessageTrackedParts message) {
+            RemoteDamageModel model = RemoteDamageModel.get(message.entityId);
+            if (model == null)
+                return;
+            if (message.hasParts)
+                model.setParts(message.health, message.absorption, message.maxHealth);
+            else
+                model.clearParts();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * FirstAid
+ * Copyright (C) 2017-2019
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package ichttt.mods.firstaid.common.network;
+
+import ichttt.mods.firstaid.api.damagesystem.AbstractDamageablePart;
+import ichttt.mods.firstaid.api.damagesystem.AbstractPlayerDamageModel;
+import ichttt.mods.firstaid.api.enums.EnumPlayerPart;
+import ichttt.mods.firstaid.common.damagesystem.PartStorage;
+import ichttt.mods.firstaid.common.damagesystem.PlayerDamageModel;
+import ichttt.mods.firstaid.common.util.CommonUtils;
+import net.minecraft.client.Minecraft;
+import net.minecraft.network.PacketBuffer;
+import net.minecraftforge.fml.network.NetworkEvent;
+
+import java.util.function.Supplier;
+
+/**
+ * Sends the resulting state of all parts that changed since the last update.
+ * The client applies the values as-is instead of recalculating damage and healing.
+ * Health and absorption are sent as the fixed point values of {@link PartStorage}.
+ */
+public class MessageUpdateParts {
+    private final int sequence;
+    private final int dirtyMask;
+    private final int[] health;
+    private final int[] absorption;
+    private final int[] maxHealth;
+
+    public MessageUpdateParts(PacketBuffer buffer) {
+        this.sequence = buffer.readVarInt();
+        this.dirtyMask = buffer.readUnsignedByte();
+        this.health = new int[8];
+        this.absorption = new int[8];
+        this.maxHealth = new int[8];
+        for (int i = 0; i < 8; i++) {
+            if ((dirtyMask & (1 << i)) != 0) {
+                this.health[i] = buffer.readShort();
+                this.absorption[i] = buffer.readShort();
+                this.maxHealth[i] = buffer.readUnsignedByte();
+            }
+        }
+    }
+
+    public MessageUpdateParts(int sequence, int dirtyMask, int[] health, int[] absorption, int[] maxHealth) {
+        this.sequence = sequence;
+        this.dirtyMask = dirtyMask;
+        this.health = health;
+        this.absorption = absorption;
+        this.maxHealth = maxHealth;
+    }
+
+    public void encode(PacketBuffer buf) {
+        buf.writeVarInt(sequence);
+        buf.writeByte(dirtyMask);
+        for (int i = 0; i < 8; i++) {
+            if ((dirtyMask & (1 << i)) != 0) {
+                buf.writeShort(health[i]);
+                buf.writeShort(absorption[i]);
+                buf.writeByte(maxHealth[i]);
+            }
+        }
+    }
+
+    public static class Handler {
+
+        public static void onMessage(MessageUpdateParts message, Supplier<NetworkEvent.Context> supplier) {
+            NetworkEvent.Context ctx = supplier.get();
+            CommonUtils.checkClient(ctx);
+            ctx.enqueueWork(() -> handle(message));
+        }
+
+        public static void handle(MessageUpdateParts message) {
+            AbstractPlayerDamageModel damageModel = CommonUtils.getDamageModel(Minecraft.getInstance().player);
+            for (int i = 0; i < 8; i++) {
+                if ((message.dirtyMask & (1 << i)) == 0)
+                    continue;
+                AbstractDamageablePart part = damageModel.getFromEnum(EnumPlayerPart.VALUES[i]);
+                part.setMaxHealth(message.maxHealth[i]);
+                part.setAbsorption(PartStorage.toFloat(message.absorption[i]));
+                part.setCurrentHealth(PartStorage.toFloat(message.health[i]));
+            }
+            ((PlayerDamageModel) damageModel).setSyncSequence(message.sequence);
+        }
+    }
+}
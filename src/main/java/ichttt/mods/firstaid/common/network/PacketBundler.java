@@ -0,0 +1,143 @@
+/*
+ * FirstAid
+ * Copyright (C) 2017-2019
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package ichttt.mods.firstaid.common.network;
+
+import ichttt.mods.firstaid.FirstAid;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraft.network.PacketBuffer;
+import net.minecraftforge.fml.network.PacketDistributor;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Collects all server to client messages of a player during a tick and sends them as a single {@link MessageBundle} at the end of the tick.
+ * Messages are encoded right away into a pooled buffer, so no message objects are kept around until the flush.
+ */
+public class PacketBundler {
+    private static final List<BundledType<?>> TYPES = new ArrayList<>();
+    private static final Map<Class<?>, BundledType<?>> TYPES_BY_CLASS = new HashMap<>();
+    private static final Map<ServerPlayerEntity, PacketBuffer> QUEUED = new IdentityHashMap<>();
+
+    public static synchronized <T> void register(Class<T> clazz, BiConsumer<T, PacketBuffer> encoder, Function<PacketBuffer, T> decoder, Consumer<T> handler) {
+        if (TYPES_BY_CLASS.containsKey(clazz))
+            throw new IllegalArgumentException("Duplicate bundled message type " + clazz);
+        BundledType<T> type = new BundledType<>(TYPES.size(), encoder, decoder, handler);
+        TYPES.add(type);
+        TYPES_BY_CLASS.put(clazz, type);
+    }
+
+    /**
+     * Queues the message for the given player. It will be sent at the end of the current server tick
+     */
+    public static <T> void queue(@Nonnull ServerPlayerEntity player, @Nonnull T message) {
+        write(getBuffer(player), message);
+    }
+
+    /**
+     * Encodes the message once, so the result can be queued any number of times using {@link #queueEncoded(ServerPlayerEntity, byte[])}
+     */
+    @Nonnull
+    public static <T> byte[] encode(@Nonnull T message) {
+        PacketBuffer buffer = new PacketBuffer(Unpooled.buffer());
+        write(buffer, message);
+        byte[] bytes = new byte[buffer.readableBytes()];
+        buffer.readBytes(bytes);
+        return bytes;
+    }
+
+    public static void queueEncoded(@Nonnull ServerPlayerEntity player, @Nonnull byte[] encodedMessage) {
+        getBuffer(player).writeBytes(encodedMessage);
+    }
+
+    private static PacketBuffer getBuffer(ServerPlayerEntity player) {
+        return QUEUED.computeIfAbsent(player, p -> new PacketBuffer(PooledByteBufAllocator.DEFAULT.buffer()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void write(PacketBuffer buffer, T message) {
+        BundledType<T> type = (BundledType<T>) TYPES_BY_CLASS.get(message.getClass());
+        if (type == null)
+            throw new IllegalArgumentException("Message type " + message.getClass() + " is not registered for bundling");
+        buffer.writeVarInt(type.id);
+        type.encoder.accept(message, buffer);
+    }
+
+    public static void flush() {
+        if (QUEUED.isEmpty())
+            return;
+        for (Map.Entry<ServerPlayerEntity, PacketBuffer> entry : QUEUED.entrySet()) {
+            ServerPlayerEntity player = entry.getKey();
+            PacketBuffer buffer = entry.getValue();
+            try {
+                if (player.connection != null)
+                    FirstAid.NETWORKING.send(PacketDistributor.PLAYER.with(() -> player), MessageBundle.of(buffer));
+            } finally {
+                buffer.release();
+            }
+        }
+        QUEUED.clear();
+    }
+
+    public static void remove(ServerPlayerEntity player) {
+        PacketBuffer buffer = QUEUED.remove(player);
+        if (buffer != null)
+            buffer.release();
+    }
+
+    public static void clear() {
+        QUEUED.values().forEach(PacketBuffer::release);
+        QUEUED.clear();
+    }
+
+    static Object decode(PacketBuffer buffer) {
+        BundledType<?> type = TYPES.get(buffer.readVarInt());
+        return type.decoder.apply(buffer);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> void handle(T message) {
+        BundledType<T> type = (BundledType<T>) TYPES_BY_CLASS.get(message.getClass());
+        type.handler.accept(message);
+    }
+
+    private static class BundledType<T> {
+        private final int id;
+        private final BiConsumer<T, PacketBuffer> encoder;
+        private final Function<PacketBuffer, T> decoder;
+        private final Consumer<T> handler;
+
+        private BundledType(int id, BiConsumer<T, PacketBuffer> encoder, Function<PacketBuffer, T> decoder, Consumer<T> handler) {
+            this.id = id;
+            this.encoder = encoder;
+            this.decoder = decoder;
+            this.handler = handler;
+        }
+    }
+}
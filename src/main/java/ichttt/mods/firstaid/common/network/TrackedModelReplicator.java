@@ -0,0 +1,137 @@
+/*
+ * FirstAid
+ * Copyright (C) 2017-2019
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ichttt.mods.firstaid.common.network;
+
+import ichttt.mods.firstaid.FirstAid;
+import ichttt.mods.firstaid.FirstAidConfig;
+import ichttt.mods.firstaid.api.damagesystem.AbstractPlayerDamageModel;
+import ichttt.mods.firstaid.common.damagesystem.PlayerDamageModel;
+import ichttt.mods.firstaid.common.util.CommonUtils;
+import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraft.server.MinecraftServer;
+import net.minecraftforge.fml.network.PacketDistributor;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Replicates the damage models of players to the players that track them.
+ * Everyone tracking a player gets the overall health, teammates within {@link FirstAidConfig.General#teamDetailRange} get every part.
+ * Only accessed from the server thread.
+ */
+public class TrackedModelReplicator {
+    private static final Map<ServerPlayerEntity, TrackingState> STATES = new IdentityHashMap<>();
+
+    public static void startTracking(ServerPlayerEntity tracker, ServerPlayerEntity target) {
+        if (!FirstAidConfig.GENERAL.replicateToTrackers.get())
+            return;
+        STATES.computeIfAbsent(target, player -> new TrackingState()).trackers.add(tracker);
+        PacketBundler.queue(tracker, new MessageTrackedHealth(target.getEntityId(), getHealthFraction(CommonUtils.getDamageModel(target))));
+    }
+
+    public static void stopTracking(ServerPlayerEntity tracker, ServerPlayerEntity target) {
+        TrackingState state = STATES.get(target);
+        if (state != null) {
+            state.trackers.remove(tracker);
+            state.partViewers.remove(tracker);
+        }
+    }
+
+    public static void remove(ServerPlayerEntity player) {
+        STATES.remove(player);
+        for (TrackingState state : STATES.values()) {
+            state.trackers.remove(player);
+            state.partViewers.remove(player);
+        }
+    }
+
+    public static void clear() {
+        STATES.clear();
+    }
+
+    /**
+     * Called at the end of every server tick. Players are spread over the update interval by their entity id
+     */
+    public static void tick(MinecraftServer server) {
+        if (STATES.isEmpty() || !FirstAidConfig.GENERAL.replicateToTrackers.get())
+            return;
+        int tick = server.getTickCounter();
+        int healthInterval = FirstAidConfig.GENERAL.trackedHealthInterval.get();
+        int partsInterval = FirstAidConfig.GENERAL.trackedPartsInterval.get();
+        int range = FirstAidConfig.GENERAL.teamDetailRange.get();
+        Iterator<Map.Entry<ServerPlayerEntity, TrackingState>> iterator = STATES.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<ServerPlayerEntity, TrackingState> entry = iterator.next();
+            ServerPlayerEntity player = entry.getKey();
+            TrackingState state = entry.getValue();
+            if (player.removed) { //respawning creates a new player entity
+                iterator.remove();
+                continue;
+            }
+            if (state.trackers.isEmpty())
+                continue;
+            AbstractPlayerDamageModel damageModel = CommonUtils.getDamageModel(player);
+            int phase = tick + player.getEntityId();
+            if (phase % healthInterval == 0) {
+                int healthFraction = getHealthFraction(damageModel);
+                if (healthFraction != state.healthFraction) {
+                    state.healthFraction = healthFraction;
+                    FirstAid.NETWORKING.send(PacketDistributor.TRACKING_ENTITY.with(() -> player), new MessageTrackedHealth(player.getEntityId(), healthFraction));
+                }
+            }
+            if (phase % partsInterval == 0)
+                updatePartViewers(player, state, damageModel, range * range);
+        }
+    }
+
+    private static void updatePartViewers(ServerPlayerEntity player, TrackingState state, AbstractPlayerDamageModel damageModel, int rangeSq) {
+        int revision = ((PlayerDamageModel) damageModel).getPartsRevision();
+        boolean changed = revision != state.partsRevision;
+        state.partsRevision = revision;
+        byte[] encodedParts = null;
+        for (ServerPlayerEntity viewer : state.trackers) {
+            if (rangeSq > 0 && viewer.isOnSameTeam(player) && viewer.getDistanceSq(player) <= rangeSq) {
+                if (state.partViewers.add(viewer) || changed) {
+                    if (encodedParts == null)
+                        encodedParts = PacketBundler.encode(new MessageTrackedParts(player.getEntityId(), damageModel));
+                    PacketBundler.queueEncoded(viewer, encodedParts);
+                }
+            } else if (state.partViewers.remove(viewer)) {
+                PacketBundler.queue(viewer, new MessageTrackedParts(player.getEntityId(), null));
+            }
+        }
+    }
+
+    private static int getHealthFraction(AbstractPlayerDamageModel damageModel) {
+        if (damageModel.isDead(null))
+            return 0;
+        float fraction = damageModel.getCurrentHealth() / damageModel.getCurrentMaxHealth();
+        return Math.max(1, Math.min(255, Math.round(fraction * 255F)));
+    }
+
+    private static class TrackingState {
+        private final Set<ServerPlayerEntity> trackers = Collections.newSetFromMap(new IdentityHashMap<>());
+        private final Set<ServerPlayerEntity> partViewers = Collections.newSetFromMap(new IdentityHashMap<>());
+        private int healthFraction = -1;
+        private int partsRevision = -1;
+    }
+}
@@ -18,6 +18,7 @@
 
 package ichttt.mods.firstaid.common.util;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.primitives.Ints;
 import ichttt.mods.firstaid.FirstAid;
@@ -25,14 +26,20 @@ import ichttt.mods.firstaid.FirstAidConfig;
 import ichttt.mods.firstaid.api.CapabilityExtendedHealthSystem;
 import ichttt.mods.firstaid.api.damagesystem.AbstractPlayerDamageModel;
 import ichttt.mods.firstaid.api.enums.EnumPlayerPart;
-import ichttt.mods.firstaid.common.DataManagerWrapper;
+import ichttt.mods.firstaid.common.PlayerDataInterceptor;
 import ichttt.mods.firstaid.common.damagesystem.distribution.HealthDistribution;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.entity.player.ServerPlayerEntity;
 import net.minecraft.inventory.EquipmentSlotType;
 import net.minecraft.util.DamageSource;
+import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.common.util.FakePlayer;
+import net.minecraftforge.eventbus.EventBus;
+import net.minecraftforge.eventbus.api.Event;
+import net.minecraftforge.eventbus.api.EventListenerHelper;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.IEventListener;
 import net.minecraftforge.fml.ModContainer;
 import net.minecraftforge.fml.ModLoadingContext;
 import net.minecraftforge.fml.network.NetworkDirection;
@@ -40,12 +47,12 @@ import net.minecraftforge.fml.network.NetworkEvent;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.util.Arrays;
-import java.util.Collections;
+import java.lang.reflect.Field;
 import java.util.List;
 import java.util.Objects;
 
 public class CommonUtils {
+    private static int forgeBusId = -1;
     @Nonnull
     public static final EquipmentSlotType[] ARMOR_SLOTS;
     @Nonnull
@@ -58,10 +65,10 @@ public class CommonUtils {
         ARMOR_SLOTS[1] = EquipmentSlotType.LEGS;
         ARMOR_SLOTS[0] = EquipmentSlotType.FEET;
         slotToParts = ImmutableMap.<EquipmentSlotType, List<EnumPlayerPart>>builder().
-        put(EquipmentSlotType.HEAD, Collections.singletonList(EnumPlayerPart.HEAD)).
-        put(EquipmentSlotType.CHEST, Arrays.asList(EnumPlayerPart.LEFT_ARM, EnumPlayerPart.RIGHT_ARM, EnumPlayerPart.BODY)).
-        put(EquipmentSlotType.LEGS, Arrays.asList(EnumPlayerPart.LEFT_LEG, EnumPlayerPart.RIGHT_LEG)).
-        put(EquipmentSlotType.FEET, Arrays.asList(EnumPlayerPart.LEFT_FOOT, EnumPlayerPart.RIGHT_FOOT)).build();
+        put(EquipmentSlotType.HEAD, ImmutableList.of(EnumPlayerPart.HEAD)).
+        put(EquipmentSlotType.CHEST, ImmutableList.of(EnumPlayerPart.LEFT_ARM, EnumPlayerPart.RIGHT_ARM, EnumPlayerPart.BODY)).
+        put(EquipmentSlotType.LEGS, ImmutableList.of(EnumPlayerPart.LEFT_LEG, EnumPlayerPart.RIGHT_LEG)).
+        put(EquipmentSlotType.FEET, ImmutableList.of(EnumPlayerPart.LEFT_FOOT, EnumPlayerPart.RIGHT_FOOT)).build();
     }
 
     public static void killPlayer(@Nonnull PlayerEntity player, @Nullable DamageSource source) {
@@ -72,7 +79,7 @@ public class CommonUtils {
 //        if (revival != null)
 //            revival.startBleeding(player, source);
 //        else
-            ((DataManagerWrapper) player.dataManager).set_impl(PlayerEntity.HEALTH, 0F);
+            PlayerDataInterceptor.setHealthUnchecked(player, 0F);
     }
 
 //    /**
@@ -111,7 +118,7 @@ public class CommonUtils {
     public static void healPlayerByPercentage(double percentage, AbstractPlayerDamageModel damageModel, PlayerEntity player) {
         Objects.requireNonNull(damageModel);
         int healValue = Ints.checkedCast(Math.round(damageModel.getCurrentMaxHealth() * percentage));
-        HealthDistribution.manageHealth(healValue, damageModel, player, true, false);
+        HealthDistribution.manageHealth(healValue, damageModel, player, false);
     }
 
     public static void debugLogStacktrace(String name) {
@@ -125,7 +132,38 @@ public class CommonUtils {
 
     @Nonnull
     public static AbstractPlayerDamageModel getDamageModel(PlayerEntity player) {
-        return player.getCapability(CapabilityExtendedHealthSystem.INSTANCE).orElseThrow(() -> new IllegalArgumentException("Player " + player.getName() + " is missing a damage model!"));
+        //the interceptor entries reference the same model as the capability, and are much cheaper to reach than the capability dispatcher
+        AbstractPlayerDamageModel damageModel = PlayerDataInterceptor.getDamageModel(player);
+        if (damageModel != null)
+            return damageModel;
+        damageModel = player.getCapability(CapabilityExtendedHealthSystem.INSTANCE).orElse(null); //no capturing lambda on this hot path
+        if (damageModel == null)
+            throw new IllegalArgumentException("Player " + player.getName() + " is missing a damage model!");
+        return damageModel;
+    }
+
+    /**
+     * Checks if anything is subscribed to the given event on the forge event bus, so we can skip building and posting it.
+     * If the bus internals cannot be accessed, this always returns true.
+     */
+    public static boolean hasListeners(Class<? extends Event> eventClass) {
+        if (forgeBusId == -1) {
+            try {
+                Field field = EventBus.class.getDeclaredField("busID");
+                field.setAccessible(true);
+                forgeBusId = field.getInt(MinecraftForge.EVENT_BUS);
+            } catch (ReflectiveOperationException | ClassCastException e) {
+                FirstAid.LOGGER.warn("Could not lookup forge event bus id, events will always be posted", e);
+                forgeBusId = -2;
+            }
+        }
+        if (forgeBusId < 0)
+            return true;
+        for (IEventListener listener : EventListenerHelper.getListenerList(eventClass).getListeners(forgeBusId)) {
+            if (!(listener instanceof EventPriority)) //priorities are part of the listener list as well
+                return true;
+        }
+        return false;
     }
 
     public static boolean hasDamageModel(Entity entity) {
@@ -0,0 +1,58 @@
+/*
+ * FirstAid
+ * Copyright (C) 2017-2019
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package ichttt.mods.firstaid.common.util;
+
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.util.FoodStats;
+
+/**
+ * Tells natural (food) regeneration apart from other heals without walking the stack.
+ * Vanilla only heals from {@link FoodStats#tick(PlayerEntity)} inside the server player tick, and only at the moment the
+ * food timer has reached its threshold (it is reset right after the heal).
+ * The thresholds (80 and 10 ticks, food level 18 and 20) mirror {@link FoodStats#tick(PlayerEntity)} of vanilla 1.14.4.
+ * A mod that replaces FoodStats with different rules gets its regeneration treated as other healing, so otherRegenMultiplier applies to it.
+ */
+public class HealSourceClassifier {
+    private static PlayerEntity tickingPlayer;
+
+    public static void beginPlayerTick(PlayerEntity player) {
+        tickingPlayer = player;
+    }
+
+    public static void endPlayerTick(PlayerEntity player) {
+        if (tickingPlayer == player)
+            tickingPlayer = null;
+    }
+
+    public static boolean isNaturalRegen(PlayerEntity player) {
+        return isNaturalRegen(player, player.getFoodStats());
+    }
+
+    static boolean isNaturalRegen(PlayerEntity player, FoodStats foodStats) {
+        return tickingPlayer != null && tickingPlayer == player && isRegenTick(foodStats);
+    }
+
+    static boolean isRegenTick(FoodStats foodStats) {
+        int timer = foodStats.foodTimer;
+        if (timer >= 80)
+            return foodStats.getFoodLevel() >= 18;
+        return timer >= 10 && foodStats.getSaturationLevel() > 0F && foodStats.getFoodLevel() >= 20;
+    }
+}
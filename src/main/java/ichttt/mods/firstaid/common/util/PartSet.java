@@ -0,0 +1,48 @@
+/*
+ * FirstAid
+ * Copyright (C) 2017-2019
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ichttt.mods.firstaid.common.util;
+
+import ichttt.mods.firstaid.api.enums.EnumPlayerPart;
+
+/**
+ * A set of parts packed into the lower 8 bits of an int, see {@link EnumPlayerPart#getMask()}
+ */
+public class PartSet {
+    public static final int EMPTY = 0;
+    public static final int ALL = (1 << EnumPlayerPart.VALUES.length) - 1;
+
+    public static int of(EnumPlayerPart... parts) {
+        int set = EMPTY;
+        for (EnumPlayerPart part : parts)
+            set |= part.getMask();
+        return set;
+    }
+
+    public static int with(int set, EnumPlayerPart part) {
+        return set | part.getMask();
+    }
+
+    public static boolean contains(int set, EnumPlayerPart part) {
+        return (set & part.getMask()) != 0;
+    }
+
+    public static int size(int set) {
+        return Integer.bitCount(set);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * FirstAid
+ * Copyright (C) 2017-2019
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ichttt.mods.firstaid.common.util;
+
+import ichttt.mods.firstaid.FirstAidConfig;
+import net.minecraft.entity.player.PlayerEntity;
+
+import javax.annotation.Nonnull;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Hands out the random sources used for damage and healing distribution.
+ * By default every thread uses its own stream, so the client and the integrated server never contend on a shared Random.
+ * In deterministic mode, every player on the server gets a stream seeded from the world seed and the player UUID,
+ * so the same sequence of hits and heals after a login always gets distributed the same way.
+ */
+public class RandomService {
+    private static final Map<UUID, Random> PLAYER_STREAMS = new HashMap<>(); //server thread only
+
+    @Nonnull
+    public static Random get(@Nonnull PlayerEntity player) {
+        if (player.world.isRemote || !FirstAidConfig.GENERAL.deterministicRandom.get())
+            return ThreadLocalRandom.current();
+        return PLAYER_STREAMS.computeIfAbsent(player.getUniqueID(), uuid -> new Random(seedFor(player.world.getSeed(), uuid)));
+    }
+
+    /**
+     * For randomness that is not bound to a player and does not need to be reproducible
+     */
+    @Nonnull
+    public static Random get() {
+        return ThreadLocalRandom.current();
+    }
+
+    /**
+     * Restarts the stream of the player, called on login
+     */
+    public static void reset(@Nonnull PlayerEntity player) {
+        PLAYER_STREAMS.remove(player.getUniqueID());
+    }
+
+    public static void clear() {
+        PLAYER_STREAMS.clear();
+    }
+
+    private static long seedFor(long worldSeed, UUID uuid) {
+        long seed = worldSeed;
+        seed = seed * 31 + uuid.getMostSignificantBits();
+        seed = seed * 31 + uuid.getLeastSignificantBits();
+        return seed;
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * FirstAid
+ * Copyright (C) 2017-2019
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ichttt.mods.firstaid;
+
+import com.electronwill.nightconfig.core.CommentedConfig;
+
+/**
+ * Backs the config specs with in memory configs, so tests can create damage models with the default values
+ */
+public class TestConfig {
+    private static boolean loaded = false;
+
+    public static synchronized void loadDefaults() {
+        if (loaded)
+            return;
+        FirstAidConfig.serverSpec.setConfig(CommentedConfig.inMemory());
+        FirstAidConfig.generalSpec.setConfig(CommentedConfig.inMemory());
+        loaded = true;
+    }
+}
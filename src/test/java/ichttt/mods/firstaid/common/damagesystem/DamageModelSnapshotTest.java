@@ -0,0 +1,67 @@
+/*
+ * FirstAid
+ * Copyright (C) 2017-2019
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ichttt.mods.firstaid.common.damagesystem;
+
+import ichttt.mods.firstaid.TestConfig;
+import ichttt.mods.firstaid.api.enums.EnumPlayerPart;
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.PacketBuffer;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class DamageModelSnapshotTest {
+
+    @BeforeClass
+    public static void setup() {
+        TestConfig.loadDefaults();
+    }
+
+    private static PlayerDamageModel createDamagedModel() {
+        PlayerDamageModel damageModel = PlayerDamageModel.create();
+        damageModel.getFromEnum(EnumPlayerPart.HEAD).damage(1.5F, null, false);
+        damageModel.getFromEnum(EnumPlayerPart.LEFT_LEG).damage(3.25F, null, false);
+        damageModel.getFromEnum(EnumPlayerPart.BODY).setAbsorption(2F);
+        return damageModel;
+    }
+
+    @Test
+    public void testRoundTrip() {
+        PlayerDamageModel damageModel = createDamagedModel();
+        PacketBuffer buffer = new PacketBuffer(Unpooled.buffer());
+        DamageModelSnapshot.capture(damageModel).write(buffer);
+
+        PlayerDamageModel copy = PlayerDamageModel.create();
+        DamageModelSnapshot.read(buffer).copyTo(copy);
+        Assert.assertEquals(0, buffer.readableBytes());
+        Assert.assertTrue(DamageModelSnapshot.capture(copy).matches(damageModel));
+    }
+
+    @Test
+    public void testSizeAgainstNBT() {
+        PlayerDamageModel damageModel = createDamagedModel();
+        PacketBuffer nbt = new PacketBuffer(Unpooled.buffer());
+        nbt.writeCompoundTag(damageModel.serializeNBT()); //the full sync format before the binary codec
+        PacketBuffer binary = new PacketBuffer(Unpooled.buffer());
+        DamageModelSnapshot.capture(damageModel).write(binary);
+
+        Assert.assertTrue("Binary codec should be a fraction of the NBT size, but was " + binary.readableBytes() + " bytes vs " + nbt.readableBytes() + " bytes NBT",
+                binary.readableBytes() * 4 < nbt.readableBytes());
+    }
+}
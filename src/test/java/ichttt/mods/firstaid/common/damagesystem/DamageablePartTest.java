@@ -0,0 +1,86 @@
+/*
+ * FirstAid
+ * Copyright (C) 2017-2019
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ichttt.mods.firstaid.common.damagesystem;
+
+import ichttt.mods.firstaid.TestConfig;
+import ichttt.mods.firstaid.api.damagesystem.AbstractDamageablePart;
+import ichttt.mods.firstaid.api.enums.EnumPlayerPart;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class DamageablePartTest {
+
+    @BeforeClass
+    public static void setup() {
+        TestConfig.loadDefaults();
+    }
+
+    private static void assertTotalsConsistent(PlayerDamageModel damageModel) {
+        float sum = 0F;
+        for (AbstractDamageablePart part : damageModel)
+            sum += part.getCurrentHealth();
+        Assert.assertEquals(sum, damageModel.getCurrentHealth(), 0F);
+    }
+
+    @Test
+    public void testHealMaxValue() {
+        PlayerDamageModel damageModel = PlayerDamageModel.create();
+        AbstractDamageablePart part = damageModel.getFromEnum(EnumPlayerPart.LEFT_ARM);
+        part.damage(2.5F, null, false);
+        float leftover = part.heal(Float.MAX_VALUE, null, false);
+        Assert.assertEquals(part.getMaxHealth(), part.getCurrentHealth(), 0F);
+        Assert.assertEquals(Float.MAX_VALUE, leftover, Float.MAX_VALUE * 1E-6F);
+        assertTotalsConsistent(damageModel);
+    }
+
+    @Test
+    public void testDamageMaxValue() {
+        PlayerDamageModel damageModel = PlayerDamageModel.create();
+        AbstractDamageablePart part = damageModel.getFromEnum(EnumPlayerPart.LEFT_ARM);
+        part.setAbsorption(2F);
+        float leftover = part.damage(Float.MAX_VALUE, null, false);
+        Assert.assertEquals(0F, part.getCurrentHealth(), 0F);
+        Assert.assertEquals(0F, part.getAbsorption(), 0F);
+        Assert.assertEquals(Float.MAX_VALUE, leftover, Float.MAX_VALUE * 1E-6F);
+        assertTotalsConsistent(damageModel);
+    }
+
+    @Test
+    public void testDamageMaxValueWithMinHealth() {
+        PlayerDamageModel damageModel = PlayerDamageModel.create();
+        AbstractDamageablePart part = damageModel.getFromEnum(EnumPlayerPart.BODY);
+        float leftover = part.damage(Float.MAX_VALUE, null, false, 1F);
+        Assert.assertEquals(1F, part.getCurrentHealth(), 0F);
+        Assert.assertEquals(Float.MAX_VALUE, leftover, Float.MAX_VALUE * 1E-6F);
+        assertTotalsConsistent(damageModel);
+    }
+
+    @Test
+    public void testLeftoverOfSmallAmounts() {
+        PlayerDamageModel damageModel = PlayerDamageModel.create();
+        AbstractDamageablePart part = damageModel.getFromEnum(EnumPlayerPart.HEAD);
+        float maxHealth = part.getMaxHealth();
+        Assert.assertEquals(2F, part.damage(maxHealth + 1F, null, false, 1F), 0F);
+        Assert.assertEquals(1F, part.getCurrentHealth(), 0F);
+        Assert.assertEquals(1F, part.heal(maxHealth, null, false), 0F);
+        Assert.assertEquals(maxHealth, part.getCurrentHealth(), 0F);
+        assertTotalsConsistent(damageModel);
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * FirstAid
+ * Copyright (C) 2017-2019
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ichttt.mods.firstaid.common.damagesystem.distribution;
+
+import ichttt.mods.firstaid.api.enums.EnumPlayerPart;
+import ichttt.mods.firstaid.common.util.CommonUtils;
+import net.minecraft.inventory.EquipmentSlotType;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures the bytes allocated per hit to pick a random part order, comparing the old shuffling with the permutation tables.
+ * Run the main method with a HotSpot JVM, the thread allocation counter is not part of the standard API.
+ */
+public class PermutationTablesBenchmark {
+    private static final int WARMUP = 200_000;
+    private static final int ITERATIONS = 1_000_000;
+    private static int sink = 0;
+
+    //the order picking of RandomDamageDistribution before the tables
+    private static List<Pair<EquipmentSlotType, EnumPlayerPart[]>> shuffledOrder(Random random) {
+        List<Pair<EquipmentSlotType, EnumPlayerPart[]>> partList = new ArrayList<>();
+        List<EquipmentSlotType> slots = Arrays.asList(EquipmentSlotType.values());
+        Collections.shuffle(slots, random);
+        for (EquipmentSlotType slot : slots) {
+            if (!CommonUtils.isValidArmorSlot(slot))
+                continue;
+            List<EnumPlayerPart> parts = new ArrayList<>(CommonUtils.slotToParts.get(slot)); //the shared lists are immutable now
+            Collections.shuffle(parts, random);
+            partList.add(Pair.of(slot, parts.toArray(new EnumPlayerPart[0])));
+        }
+        return partList;
+    }
+
+    private static void runShuffled(Random random, int iterations) {
+        for (int i = 0; i < iterations; i++) {
+            for (Pair<EquipmentSlotType, EnumPlayerPart[]> pair : shuffledOrder(random))
+                sink += pair.getRight()[0].ordinal();
+        }
+    }
+
+    private static void runTables(Random random, int iterations) {
+        for (int i = 0; i < iterations; i++) {
+            for (Pair<EquipmentSlotType, EnumPlayerPart[]> pair : PermutationTables.randomSlotOrder(random)) {
+                EnumPlayerPart[] parts = pair.getRight();
+                sink += parts[PermutationTables.randomIndexOrder(parts.length, random)[0]].ordinal();
+            }
+        }
+    }
+
+    private static void report(String name, Runnable run) {
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long bytesBefore = bean.getThreadAllocatedBytes(threadId);
+        long timeBefore = System.nanoTime();
+        run.run();
+        long time = System.nanoTime() - timeBefore;
+        long bytes = bean.getThreadAllocatedBytes(threadId) - bytesBefore;
+        System.out.printf("%-10s %8.1f bytes/hit %8.1f ns/hit%n", name, bytes / (double) ITERATIONS, time / (double) ITERATIONS);
+    }
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        runShuffled(random, WARMUP);
+        runTables(random, WARMUP);
+        report("shuffled", () -> runShuffled(random, ITERATIONS));
+        report("tables", () -> runTables(random, ITERATIONS));
+        System.out.println("checksum " + sink); //keeps the JIT from dropping the loops
+    }
+}
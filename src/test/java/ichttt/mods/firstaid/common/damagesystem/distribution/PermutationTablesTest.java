@@ -0,0 +1,100 @@
+/*
+ * FirstAid
+ * Copyright (C) 2017-2019
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ichttt.mods.firstaid.common.damagesystem.distribution;
+
+import ichttt.mods.firstaid.api.enums.EnumPlayerPart;
+import net.minecraft.inventory.EquipmentSlotType;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class PermutationTablesTest {
+
+    private static long factorial(int n) {
+        long result = 1;
+        for (int i = 2; i <= n; i++)
+            result *= i;
+        return result;
+    }
+
+    private static boolean isPermutation(List<Integer> order, int length) {
+        if (order.size() != length)
+            return false;
+        boolean[] seen = new boolean[length];
+        for (int index : order) {
+            if (index < 0 || index >= length || seen[index])
+                return false;
+            seen[index] = true;
+        }
+        return true;
+    }
+
+    @Test
+    public void testOrdersAreExactlyThePermutations() {
+        for (int length = 0; length <= 4; length++) {
+            List<Integer> elements = new ArrayList<>();
+            for (int i = 0; i < length; i++)
+                elements.add(i);
+            List<List<Integer>> orders = PermutationTables.buildOrders(elements);
+            Assert.assertNotNull(orders);
+            Assert.assertEquals(factorial(length), orders.size());
+            Assert.assertEquals("Duplicate order for length " + length, orders.size(), new HashSet<>(orders).size());
+            for (List<Integer> order : orders)
+                Assert.assertTrue(order + " is not a permutation", isPermutation(order, length));
+        }
+        Assert.assertNull(PermutationTables.buildOrders(Arrays.asList(0, 1, 2, 3, 4)));
+    }
+
+    @Test
+    public void testRandomIndexOrderCoversAllPermutations() {
+        Random random = new Random(42);
+        for (int length = 0; length <= 8; length++) {
+            Set<List<Integer>> seen = new HashSet<>();
+            for (int i = 0; i < 2000; i++) {
+                List<Integer> order = new ArrayList<>();
+                for (int index : PermutationTables.randomIndexOrder(length, random))
+                    order.add(index);
+                Assert.assertTrue(order + " is not a permutation", isPermutation(order, length));
+                seen.add(order);
+            }
+            if (length <= 4)
+                Assert.assertEquals("Not all orders picked for length " + length, factorial(length), seen.size());
+        }
+    }
+
+    @Test
+    public void testRandomSlotOrderContainsEveryArmorSlotOnce() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100; i++) {
+            List<Pair<EquipmentSlotType, EnumPlayerPart[]>> order = PermutationTables.randomSlotOrder(random);
+            Set<EquipmentSlotType> slots = new HashSet<>();
+            for (Pair<EquipmentSlotType, EnumPlayerPart[]> pair : order)
+                slots.add(pair.getLeft());
+            Assert.assertEquals(4, order.size());
+            Assert.assertEquals(4, slots.size());
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * FirstAid
+ * Copyright (C) 2017-2019
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ichttt.mods.firstaid.common.util;
+
+import net.minecraft.util.FoodStats;
+
+import java.util.Arrays;
+
+/**
+ * Compares the stack trace scan that used to detect natural regeneration with {@link HealSourceClassifier}.
+ * Both are measured from a deep call stack, as heals run deep inside the server tick.
+ * Run the main method, results are printed in nanoseconds per heal.
+ */
+public class HealSourceClassifierBenchmark {
+    private static final int STACK_DEPTH = 60;
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 100_000;
+    private static int sink = 0;
+
+    //the check in EventHandler.onHeal before the classifier
+    private static boolean scanStackTrace() {
+        return Arrays.stream(Thread.currentThread().getStackTrace()).anyMatch(stackTraceElement -> stackTraceElement.getClassName().equals(FoodStats.class.getName()));
+    }
+
+    private static void runStackTrace(int iterations) {
+        for (int i = 0; i < iterations; i++) {
+            if (scanStackTrace())
+                sink++;
+        }
+    }
+
+    private static void runClassifier(FoodStats foodStats, int iterations) {
+        for (int i = 0; i < iterations; i++) {
+            foodStats.foodTimer = i % 100;
+            if (HealSourceClassifier.isRegenTick(foodStats))
+                sink++;
+        }
+    }
+
+    private static void atDepth(int depth, Runnable runnable) {
+        if (depth == 0)
+            runnable.run();
+        else
+            atDepth(depth - 1, runnable);
+    }
+
+    private static void report(String name, int iterations, Runnable runnable) {
+        long start = System.nanoTime();
+        atDepth(STACK_DEPTH, runnable);
+        long time = System.nanoTime() - start;
+        System.out.printf("%-12s %10.1f ns/heal%n", name, time / (double) iterations);
+    }
+
+    public static void main(String[] args) {
+        FoodStats foodStats = new FoodStats();
+        atDepth(STACK_DEPTH, () -> runStackTrace(WARMUP));
+        atDepth(STACK_DEPTH, () -> runClassifier(foodStats, WARMUP));
+        report("stack trace", ITERATIONS, () -> runStackTrace(ITERATIONS));
+        report("classifier", ITERATIONS, () -> runClassifier(foodStats, ITERATIONS));
+        System.out.println("checksum " + sink); //keeps the JIT from dropping the loops
+    }
+}
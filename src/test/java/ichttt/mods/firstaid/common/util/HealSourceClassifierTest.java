@@ -0,0 +1,64 @@
+/*
+ * FirstAid
+ * Copyright (C) 2017-2019
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ichttt.mods.firstaid.common.util;
+
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.util.FoodStats;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HealSourceClassifierTest {
+
+    private static FoodStats foodStats(int foodLevel, float saturation, int timer) {
+        CompoundNBT nbt = new CompoundNBT();
+        nbt.putInt("foodLevel", foodLevel);
+        nbt.putInt("foodTickTimer", timer);
+        nbt.putFloat("foodSaturationLevel", saturation);
+        nbt.putFloat("foodExhaustionLevel", 0F);
+        FoodStats foodStats = new FoodStats();
+        foodStats.read(nbt);
+        return foodStats;
+    }
+
+    @Test
+    public void testSlowRegenThreshold() {
+        Assert.assertFalse(HealSourceClassifier.isRegenTick(foodStats(18, 0F, 79)));
+        Assert.assertTrue(HealSourceClassifier.isRegenTick(foodStats(18, 0F, 80)));
+        Assert.assertFalse(HealSourceClassifier.isRegenTick(foodStats(17, 0F, 80)));
+        Assert.assertTrue(HealSourceClassifier.isRegenTick(foodStats(20, 0F, 80)));
+    }
+
+    @Test
+    public void testSaturatedRegenThreshold() {
+        Assert.assertFalse(HealSourceClassifier.isRegenTick(foodStats(20, 5F, 9)));
+        Assert.assertTrue(HealSourceClassifier.isRegenTick(foodStats(20, 5F, 10)));
+        Assert.assertFalse(HealSourceClassifier.isRegenTick(foodStats(20, 0F, 10)));
+        Assert.assertFalse(HealSourceClassifier.isRegenTick(foodStats(19, 5F, 10)));
+    }
+
+    @Test
+    public void testNotNaturalOutsidePlayerTick() {
+        FoodStats regen = foodStats(20, 5F, 80);
+        Assert.assertTrue(HealSourceClassifier.isRegenTick(regen));
+        Assert.assertFalse(HealSourceClassifier.isNaturalRegen(null, regen));
+        HealSourceClassifier.beginPlayerTick(null);
+        HealSourceClassifier.endPlayerTick(null);
+        Assert.assertFalse(HealSourceClassifier.isNaturalRegen(null, regen));
+    }
+}